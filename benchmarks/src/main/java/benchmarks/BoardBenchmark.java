@@ -0,0 +1,41 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChessBoard equality and hashing, used whenever games are compared or kept in hash sets
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    private ChessBoard board;
+    private ChessBoard sameBoard;
+
+    @Setup
+    public void setUp() {
+        board = Positions.load(position).getBoard();
+        sameBoard = Positions.load(position).getBoard();
+    }
+
+    // Equal boards are the worst case: every square has to be compared
+    @Benchmark
+    public boolean equalBoards() {
+        return board.equals(sameBoard);
+    }
+
+    @Benchmark
+    public int boardHashCode() {
+        return board.hashCode();
+    }
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.GameOutcome;
+import chess.MoveList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ChessGame rules queries the server and client call on every move.
+ * <p>
+ * The end-of-game queries for the side to move are answered from an outcome cached until the
+ * position changes, which the server and client only ask for once per move. To time the real
+ * work, those benchmarks make and take back a move first, which clears the cache; makeUnmake
+ * times that step alone, to subtract from them. cachedOutcome times the repeat query.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    private ChessGame game;
+    private ChessGame.TeamColor turn;
+    private List<ChessPosition> ownPieces;
+    private int move;
+
+    @Setup
+    public void setUp() {
+        game = Positions.load(position);
+        turn = game.getTeamTurn();
+        ownPieces = new ArrayList<>();
+        for (int row=1; row<=8; row++) {
+            for (int col=1; col<=8; col++) {
+                ChessPiece piece = game.getBoard().getPiece(new ChessPosition(row, col));
+                if (piece != null && piece.getTeamColor() == turn) {
+                    ownPieces.add(new ChessPosition(row, col));
+                }
+            }
+        }
+
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        move = moves.get(0);
+    }
+
+    // Leaves the position as it was, but with the cached outcome cleared
+    private void clearOutcome() {
+        game.unmakeMove(game.makeMoveUnchecked(move));
+    }
+
+    // Every legal move of the side to move, one piece at a time as the client asks for them
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition square : ownPieces) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(turn);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        clearOutcome();
+        return game.isInCheckmate(turn);
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        clearOutcome();
+        return game.isInStalemate(turn);
+    }
+
+    @Benchmark
+    public GameOutcome outcome() {
+        clearOutcome();
+        return game.getOutcome();
+    }
+
+    @Benchmark
+    public GameOutcome cachedOutcome() {
+        return game.getOutcome();
+    }
+
+    @Benchmark
+    public ChessGame makeUnmake() {
+        clearOutcome();
+        return game;
+    }
+}
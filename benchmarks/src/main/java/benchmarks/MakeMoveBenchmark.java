@@ -0,0 +1,47 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validated ChessGame.makeMove for the first legal move of each position.
+ * <p>
+ * makeMove changes the game, so a fresh copy is set up before every invocation. That setup is
+ * excluded from the time but not from the gc profiler's allocation figures, and the timer
+ * overhead per call is visible; compare results between runs of this benchmark rather than
+ * against the others.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MakeMoveBenchmark {
+
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    private ChessGame game;
+    private ChessMove move;
+
+    @Setup(Level.Trial)
+    public void chooseMove() {
+        move = Positions.load(position).legalMoves().iterator().next();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetGame() {
+        game = Positions.load(position);
+    }
+
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        game.makeMove(move);
+        return game;
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pseudo-legal move generation for every piece of one type on the board
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceMovesBenchmark {
+
+    // The endgame position has no queens, bishops or knights, so it is left out here
+    @Param({Positions.OPENING, Positions.MIDDLEGAME})
+    public String position;
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType pieceType;
+
+    private ChessBoard board;
+    private List<ChessPosition> squares;
+
+    @Setup
+    public void setUp() {
+        board = Positions.load(position).getBoard();
+        squares = new ArrayList<>();
+        for (int row=1; row<=8; row++) {
+            for (int col=1; col<=8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                if (piece != null && piece.getPieceType() == pieceType) {
+                    squares.add(new ChessPosition(row, col));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (ChessPosition square : squares) {
+            blackhole.consume(board.getPiece(square).pieceMoves(board, square));
+        }
+    }
+}
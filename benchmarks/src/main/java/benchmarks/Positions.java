@@ -0,0 +1,33 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+
+/**
+ * Reference positions shared by the benchmarks, chosen to cover each phase of a game
+ */
+final class Positions {
+
+    static final String OPENING = "opening";
+    static final String MIDDLEGAME = "middlegame";
+    static final String ENDGAME = "endgame";
+
+    private Positions() {
+    }
+
+    /**
+     * Builds a fresh game for a named position
+     *
+     * @param name one of opening, middlegame or endgame
+     * @return A new game set up in that position
+     */
+    static ChessGame load(String name) {
+        return Fen.parse(switch (name) {
+            case OPENING -> Fen.STARTING_POSITION;
+            // "Kiwipete": every piece type, pins, checks and captures available
+            case MIDDLEGAME -> "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1";
+            case ENDGAME -> "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+            default -> throw new IllegalArgumentException("Unknown position: " + name);
+        });
+    }
+}
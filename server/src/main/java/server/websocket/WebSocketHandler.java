@@ -146,54 +146,53 @@ public class WebSocketHandler {
     private void detectEndGameConditions(
         MakeMoveCommand makeMoveCommand, ChessGame newGame, Validation validation, GameData newGameData
     ) throws IOException {
-        String looserUsername = null;
-        String winnerUsername = null;
-        if (newGame.isInCheckmate(ChessGame.TeamColor.BLACK)) {
-            looserUsername = validation.gameData().blackUsername();
-            winnerUsername = validation.gameData().whiteUsername();
-        } else if (newGame.isInCheckmate(ChessGame.TeamColor.WHITE)) {
-            looserUsername = validation.gameData().whiteUsername();
-            winnerUsername = validation.gameData().blackUsername();
-        }
-
-        if (looserUsername != null || winnerUsername != null) {
-            notifyAll(
-                makeMoveCommand.getGameID(),
-                looserUsername + " is in checkmate! " + winnerUsername + " has won!"
-            );
-            handleEndOfGame(makeMoveCommand, newGameData, null);
-            return;
-        }
-
-        String stalemateUsername = null;
-        if (newGame.isInStalemate(ChessGame.TeamColor.BLACK)) {
-            stalemateUsername = validation.gameData().blackUsername();
-        } else if (newGame.isInStalemate(ChessGame.TeamColor.WHITE)) {
-            stalemateUsername = validation.gameData().whiteUsername();
-        }
-
-        if (stalemateUsername != null) {
-            notifyAll(
+        // Only the team now to move can have been checked, mated or stalemated by the move; draws end the game too
+        GameOutcome outcome = newGame.getOutcome();
+        boolean blackToMove = newGame.getTeamTurn() == ChessGame.TeamColor.BLACK;
+        String toMoveUsername = blackToMove ?
+            validation.gameData().blackUsername() :
+            validation.gameData().whiteUsername();
+        String otherUsername = blackToMove ?
+            validation.gameData().whiteUsername() :
+            validation.gameData().blackUsername();
+
+        switch (outcome) {
+            case CHECKMATE -> {
+                notifyAll(
+                    makeMoveCommand.getGameID(),
+                    toMoveUsername + " is in checkmate! " + otherUsername + " has won!"
+                );
+                handleEndOfGame(makeMoveCommand, newGameData, null);
+            }
+            case STALEMATE -> {
+                notifyAll(
+                    makeMoveCommand.getGameID(),
+                    toMoveUsername + " is in stalemate! Game Over!"
+                );
+                handleEndOfGame(makeMoveCommand, newGameData, null);
+            }
+            case INSUFFICIENT_MATERIAL, THREEFOLD_REPETITION, FIFTY_MOVE_RULE -> {
+                notifyAll(
+                    makeMoveCommand.getGameID(),
+                    "Game drawn by " + drawReason(outcome) + "! Game Over!"
+                );
+                handleEndOfGame(makeMoveCommand, newGameData, null);
+            }
+            case CHECK -> notifyAll(
                 makeMoveCommand.getGameID(),
-                stalemateUsername + " is in stalemate! Game Over!"
+                toMoveUsername + " is in check!"
             );
-            handleEndOfGame(makeMoveCommand, newGameData, null);
-            return;
-        }
-
-        String checkedUsername = null;
-        if (newGame.isInCheck(ChessGame.TeamColor.BLACK)) {
-            checkedUsername = validation.gameData().blackUsername();
-        } else if (newGame.isInCheck(ChessGame.TeamColor.WHITE)) {
-            checkedUsername = validation.gameData().whiteUsername();
+            default -> {
+            }
         }
+    }
 
-        if (checkedUsername != null) {
-            notifyAll(
-                makeMoveCommand.getGameID(),
-                checkedUsername + " is in check!"
-            );
-        }
+    private String drawReason(GameOutcome outcome) {
+        return switch (outcome) {
+            case INSUFFICIENT_MATERIAL -> "insufficient material";
+            case THREEFOLD_REPETITION -> "threefold repetition";
+            default -> "the fifty-move rule";
+        };
     }
 
     private char charFromRow(int row) {
@@ -0,0 +1,116 @@
+package chess;
+
+/**
+ * Set-wise helpers for 64-bit board masks.
+ * <p>
+ * Squares are indexed 0-63 with a1 = 0, h1 = 7 and h8 = 63, so bit
+ * (row - 1) * 8 + (column - 1) of a mask represents the matching ChessPosition.
+ */
+public final class Bitboards {
+
+    public static final long EMPTY = 0L;
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+    public static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    /**
+     * Knight attack mask for each square
+     */
+    public static final long[] KNIGHT_ATTACKS = new long[64];
+
+    /**
+     * King attack mask for each square
+     */
+    public static final long[] KING_ATTACKS = new long[64];
+
+    /**
+     * Pawn capture masks, indexed by [TeamColor.ordinal()][square]
+     */
+    public static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    static {
+        int[][] knightOffsets = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        int[][] kingOffsets = {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+
+        for (int square=0; square<64; square++) {
+            KNIGHT_ATTACKS[square] = offsetMask(square, knightOffsets);
+            KING_ATTACKS[square] = offsetMask(square, kingOffsets);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] = offsetMask(square, new int[][] {{1, -1}, {1, 1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] = offsetMask(square, new int[][] {{-1, -1}, {-1, 1}});
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    // Build a mask of every on-board square reachable from a square by the given {row, column} offsets
+    private static long offsetMask(int square, int[][] offsets) {
+        long mask = EMPTY;
+        for (int[] offset : offsets) {
+            int row = rowOf(square) + offset[0];
+            int col = columnOf(square) + offset[1];
+            if (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                mask |= bit(squareOf(row, col));
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @return the square index (0-63) of a 1-indexed row and column
+     */
+    public static int squareOf(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the square index (0-63) of a position
+     */
+    public static int squareOf(ChessPosition position) {
+        return squareOf(position.getRow(), position.getColumn());
+    }
+
+    /**
+     * @return the 1-indexed row of a square index
+     */
+    public static int rowOf(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-indexed column of a square index
+     */
+    public static int columnOf(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * @return a mask with only the given square set
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * @return the number of squares set in a mask
+     */
+    public static int popCount(long mask) {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * @return the lowest square set in a mask, or 64 if the mask is empty
+     */
+    public static int lsb(long mask) {
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * @return the mask with its lowest set square cleared
+     */
+    public static long clearLsb(long mask) {
+        return mask & (mask - 1);
+    }
+}
@@ -10,11 +10,42 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessBoard {
+    // Bits per piece count in the material signature
+    static final int SIGNATURE_BITS = 5;
+
     private ChessPiece[][] boardData = new ChessPiece[8][8];
 
+    // Bitboard mirror of boardData and its Zobrist key; transient so the serialized form stays the 8x8 array
+    private transient long[] pieceBitboards = new long[12];
+    private transient long[] colorOccupancy = new long[2];
+    private transient long zobristKey;
+    private transient long materialSignature;
+    // Evaluation accumulators, see PieceSquareTables
+    private transient int pieceSquareScore;
+    private transient int phase;
+    private transient boolean bitboardsSynced;
+
     public ChessBoard() {
     }
 
+    /**
+     * Creates an independent copy of a board, for example to search it on another thread
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        for (int row=0; row<8; row++) {
+            boardData[row] = other.boardData[row].clone();
+        }
+        pieceBitboards = other.pieceBitboards.clone();
+        colorOccupancy = other.colorOccupancy.clone();
+        zobristKey = other.zobristKey;
+        materialSignature = other.materialSignature;
+        pieceSquareScore = other.pieceSquareScore;
+        phase = other.phase;
+        bitboardsSynced = other.bitboardsSynced;
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
@@ -22,7 +53,35 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        boardData[position.getRow() - 1][position.getColumn() - 1] = piece;
+        putPiece(Bitboards.squareOf(position), piece);
+    }
+
+    // Place (or clear, with null) a square, keeping the bitboards in step with boardData
+    private void putPiece(int square, ChessPiece piece) {
+        if (bitboardsSynced) {
+            long squareBit = Bitboards.bit(square);
+            ChessPiece replacedPiece = getPiece(square);
+            if (replacedPiece != null) {
+                int replacedIndex = pieceIndex(replacedPiece);
+                pieceBitboards[replacedIndex] &= ~squareBit;
+                colorOccupancy[replacedPiece.getTeamColor().ordinal()] &= ~squareBit;
+                zobristKey ^= Zobrist.piece(replacedIndex, square);
+                materialSignature -= 1L << (replacedIndex * SIGNATURE_BITS);
+                pieceSquareScore -= PieceSquareTables.score(replacedIndex, square);
+                phase -= PieceSquareTables.phaseWeight(replacedIndex);
+            }
+            if (piece != null) {
+                int index = pieceIndex(piece);
+                pieceBitboards[index] |= squareBit;
+                colorOccupancy[piece.getTeamColor().ordinal()] |= squareBit;
+                zobristKey ^= Zobrist.piece(index, square);
+                materialSignature += 1L << (index * SIGNATURE_BITS);
+                pieceSquareScore += PieceSquareTables.score(index, square);
+                phase += PieceSquareTables.phaseWeight(index);
+            }
+        }
+
+        boardData[square >>> 3][square & 7] = piece;
     }
 
     /**
@@ -36,48 +95,338 @@ public class ChessBoard {
         return boardData[position.getRow() - 1][position.getColumn() - 1];
     }
 
+    /**
+     * Gets a chess piece on the chessboard by square index
+     *
+     * @param square the square index (0-63, a1 = 0) to get the piece from
+     * @return Either the piece at the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return boardData[square >>> 3][square & 7];
+    }
+
+    /**
+     * Gets the squares occupied by one kind of piece
+     *
+     * @param color the team that owns the pieces
+     * @param type  the type of piece
+     * @return Mask of every square holding a matching piece
+     */
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        syncBitboards();
+        return pieceBitboards[pieceIndex(color, type)];
+    }
+
+    /**
+     * @param color the team to get the occupancy of
+     * @return Mask of every square holding one of the team's pieces
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        syncBitboards();
+        return colorOccupancy[color.ordinal()];
+    }
+
+    /**
+     * @return Mask of every occupied square
+     */
+    public long getOccupancy() {
+        syncBitboards();
+        return colorOccupancy[0] | colorOccupancy[1];
+    }
+
+    /**
+     * Gets the Zobrist key of the piece placement, kept up to date as pieces are added and moved
+     *
+     * @return 64-bit hash of which piece stands on which square
+     */
+    public long getZobristKey() {
+        syncBitboards();
+        return zobristKey;
+    }
+
+    /**
+     * Gets a count of every kind of piece packed into one value, kept up to date as pieces move.
+     * Each of the 12 piece kinds (see getPieceCount) has a 5-bit count, so equal material
+     * gives equal signatures and material can be tested without scanning the board.
+     *
+     * @return Packed piece counts
+     */
+    public long getMaterialSignature() {
+        syncBitboards();
+        return materialSignature;
+    }
+
+    /**
+     * Gets the material and piece-square score of every piece on the board, kept up to date as
+     * pieces move so evaluation doesn't have to scan the board
+     *
+     * @return Packed middlegame and endgame score, white's pieces minus black's (see PieceSquareTables)
+     */
+    public int getPieceSquareScore() {
+        syncBitboards();
+        return pieceSquareScore;
+    }
+
+    /**
+     * Gets how much non-pawn material is left, for blending middlegame and endgame scores
+     *
+     * @return Phase total, PieceSquareTables.MAX_PHASE at the start and 0 with only kings and pawns
+     */
+    public int getPhase() {
+        syncBitboards();
+        return phase;
+    }
+
+    /**
+     * Reads one piece count out of a material signature
+     *
+     * @param signature a value returned by getMaterialSignature
+     * @param color     the team that owns the pieces
+     * @param type      the type of piece
+     * @return Number of such pieces on the board
+     */
+    public static int getPieceCount(long signature, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return (int) (signature >>> (pieceIndex(color, type) * SIGNATURE_BITS)) & ((1 << SIGNATURE_BITS) - 1);
+    }
+
+    /**
+     * Moves a piece in place without checking legality, returning what is needed to take it back
+     *
+     * @param move the move to make; its start square must hold a piece
+     * @return Undo record to pass to unmakeMove
+     */
+    public long makeMove(ChessMove move) {
+        return makeMove(Bitboards.squareOf(move.getStartPosition()), Bitboards.squareOf(move.getEndPosition()),
+            move.getPromotionPiece());
+    }
+
+    /**
+     * Moves a piece in place without checking legality, returning what is needed to take it back
+     *
+     * @param move the packed move to make (see PackedMove)
+     * @return Undo record to pass to unmakeMove
+     */
+    public long makeMove(int move) {
+        return makeMove(PackedMove.from(move), PackedMove.to(move), PackedMove.promotion(move));
+    }
+
+    /**
+     * Moves a piece in place without checking legality, returning what is needed to take it back
+     *
+     * @param from      the square index the piece moves from
+     * @param to        the square index the piece moves to
+     * @param promotion the type to promote to, or null if the move is not a promotion
+     * @return Undo record to pass to unmakeMove
+     */
+    public long makeMove(int from, int to, ChessPiece.PieceType promotion) {
+        ChessPiece movedPiece = getPiece(from);
+        ChessPiece capturedPiece = getPiece(to);
+        int movedIndex = pieceIndex(movedPiece);
+        int special = MoveUndo.NORMAL;
+
+        putPiece(from, null);
+        putPiece(to, promotion == null ?
+            movedPiece :
+            ChessPiece.of(movedPiece.getTeamColor(), promotion));
+
+        // A king moving two columns is castling, and a pawn moving diagonally onto an empty square is en passant
+        ChessPiece.PieceType movedType = movedPiece.getPieceType();
+        if (movedType == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            int rookFrom = castlingRookSquare(from, to);
+            putPiece((from + to) / 2, getPiece(rookFrom));
+            putPiece(rookFrom, null);
+            special = MoveUndo.CASTLE;
+        } else if (movedType == ChessPiece.PieceType.PAWN && capturedPiece == null && ((to - from) & 7) != 0) {
+            int capturedSquare = enPassantCaptureSquare(from, to);
+            capturedPiece = getPiece(capturedSquare);
+            putPiece(capturedSquare, null);
+            special = MoveUndo.EN_PASSANT;
+        }
+
+        return MoveUndo.pack(from, to, movedIndex, capturedPiece == null ? -1 : pieceIndex(capturedPiece), special);
+    }
+
+    /**
+     * Takes back the most recent move made with makeMove
+     *
+     * @param undo the record returned when the move was made
+     */
+    public void unmakeMove(long undo) {
+        int from = MoveUndo.from(undo);
+        int to = MoveUndo.to(undo);
+        int capturedIndex = MoveUndo.capturedPiece(undo);
+        ChessPiece capturedPiece = capturedIndex < 0 ? null : ChessPiece.ofIndex(capturedIndex);
+
+        putPiece(from, ChessPiece.ofIndex(MoveUndo.movedPiece(undo)));
+        switch (MoveUndo.special(undo)) {
+            case MoveUndo.CASTLE -> {
+                int rookTo = (from + to) / 2;
+                putPiece(castlingRookSquare(from, to), getPiece(rookTo));
+                putPiece(rookTo, null);
+                putPiece(to, null);
+            }
+            case MoveUndo.EN_PASSANT -> {
+                putPiece(to, null);
+                putPiece(enPassantCaptureSquare(from, to), capturedPiece);
+            }
+            default -> putPiece(to, capturedPiece);
+        }
+    }
+
+    // Corner the rook castles from, on the side the king moves towards
+    private static int castlingRookSquare(int kingFrom, int kingTo) {
+        return kingTo > kingFrom ? kingTo + 1 : kingTo - 2;
+    }
+
+    // A pawn captured en passant stands beside the capturing pawn's start square, on the target's column
+    private static int enPassantCaptureSquare(int from, int to) {
+        return (from & ~7) | (to & 7);
+    }
+
+    /**
+     * Determines if a square is attacked by any piece of the given team
+     *
+     * @param square  the square index to test
+     * @param byColor the attacking team
+     * @return True if a piece of byColor attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        syncBitboards();
+        int attacker = byColor.ordinal() * 6;
+        int defender = byColor == ChessGame.TeamColor.WHITE ?
+            ChessGame.TeamColor.BLACK.ordinal() :
+            ChessGame.TeamColor.WHITE.ordinal();
+
+        // Work outward from the square: a piece attacks it if it sits where that piece type could be attacked from
+        if ((Bitboards.PAWN_ATTACKS[defender][square] & pieceBitboards[attacker + ChessPiece.PieceType.PAWN.ordinal()]) != 0
+            || (Bitboards.KNIGHT_ATTACKS[square] & pieceBitboards[attacker + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0
+            || (Bitboards.KING_ATTACKS[square] & pieceBitboards[attacker + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+
+        long occupancy = colorOccupancy[0] | colorOccupancy[1];
+        long queens = pieceBitboards[attacker + ChessPiece.PieceType.QUEEN.ordinal()];
+        long diagonalSliders = pieceBitboards[attacker + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        long straightSliders = pieceBitboards[attacker + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        return (SlidingAttacks.bishopAttacks(square, occupancy) & diagonalSliders) != 0
+            || (SlidingAttacks.rookAttacks(square, occupancy) & straightSliders) != 0;
+    }
+
+    /**
+     * Finds every piece of a team that attacks a square, given an occupancy to block sliders with
+     *
+     * @param square    the square index to test
+     * @param byColor   the attacking team
+     * @param occupancy the occupied squares sliders are blocked by
+     * @return Mask of the squares holding attackers of byColor
+     */
+    public long attackersTo(int square, ChessGame.TeamColor byColor, long occupancy) {
+        syncBitboards();
+        int attacker = byColor.ordinal() * 6;
+        int defender = byColor == ChessGame.TeamColor.WHITE ?
+            ChessGame.TeamColor.BLACK.ordinal() :
+            ChessGame.TeamColor.WHITE.ordinal();
+
+        long queens = pieceBitboards[attacker + ChessPiece.PieceType.QUEEN.ordinal()];
+        long diagonalSliders = pieceBitboards[attacker + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        long straightSliders = pieceBitboards[attacker + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        return (Bitboards.PAWN_ATTACKS[defender][square] & pieceBitboards[attacker + ChessPiece.PieceType.PAWN.ordinal()])
+            | (Bitboards.KNIGHT_ATTACKS[square] & pieceBitboards[attacker + ChessPiece.PieceType.KNIGHT.ordinal()])
+            | (Bitboards.KING_ATTACKS[square] & pieceBitboards[attacker + ChessPiece.PieceType.KING.ordinal()])
+            | (SlidingAttacks.bishopAttacks(square, occupancy) & diagonalSliders)
+            | (SlidingAttacks.rookAttacks(square, occupancy) & straightSliders);
+    }
+
+    /**
+     * Determines if a position is attacked by any piece of the given team
+     *
+     * @param position the position to test
+     * @param byColor  the attacking team
+     * @return True if a piece of byColor attacks the position
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(Bitboards.squareOf(position), byColor);
+    }
+
+    // Bitboard slot for a piece; whites occupy 0-5 and blacks 6-11, ordered as PieceType
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    static int pieceIndex(ChessPiece piece) {
+        return pieceIndex(piece.getTeamColor(), piece.getPieceType());
+    }
+
+    // Rebuild the bitboards from boardData if they may be stale (new or deserialized board)
+    private void syncBitboards() {
+        if (bitboardsSynced) {
+            return;
+        }
+
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        zobristKey = 0L;
+        materialSignature = 0L;
+        pieceSquareScore = 0;
+        phase = 0;
+        for (int square=0; square<64; square++) {
+            ChessPiece piece = getPiece(square);
+            if (piece != null) {
+                int index = pieceIndex(piece);
+                pieceBitboards[index] |= Bitboards.bit(square);
+                colorOccupancy[piece.getTeamColor().ordinal()] |= Bitboards.bit(square);
+                zobristKey ^= Zobrist.piece(index, square);
+                materialSignature += 1L << (index * SIGNATURE_BITS);
+                pieceSquareScore += PieceSquareTables.score(index, square);
+                phase += PieceSquareTables.phaseWeight(index);
+            }
+        }
+        bitboardsSynced = true;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
         boardData = new ChessPiece[8][8];
+        bitboardsSynced = false;
+
+        this.addPiece(ChessPosition.of(1,1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        this.addPiece(ChessPosition.of(1,2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(1,3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(1,4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        this.addPiece(ChessPosition.of(1,5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        this.addPiece(ChessPosition.of(1,6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(1,7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(1,8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+
+        this.addPiece(ChessPosition.of(2,1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(2,2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(2,3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(2,4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(2,5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(2,6), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(2,7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(2,8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+
+        this.addPiece(ChessPosition.of(7,1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(7,2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(7,3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(7,4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(7,5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(7,6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(7,7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        this.addPiece(ChessPosition.of(7,8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
 
-        this.addPiece(new ChessPosition(1,1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        this.addPiece(new ChessPosition(1,2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        this.addPiece(new ChessPosition(1,3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        this.addPiece(new ChessPosition(1,4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        this.addPiece(new ChessPosition(1,5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        this.addPiece(new ChessPosition(1,6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        this.addPiece(new ChessPosition(1,7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        this.addPiece(new ChessPosition(1,8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-
-        this.addPiece(new ChessPosition(2,1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(2,2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(2,3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(2,4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(2,5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(2,6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(2,7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(2,8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-
-        this.addPiece(new ChessPosition(7,1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(7,2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(7,3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(7,4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(7,5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(7,6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(7,7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        this.addPiece(new ChessPosition(7,8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-
-        this.addPiece(new ChessPosition(8,1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        this.addPiece(new ChessPosition(8,2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        this.addPiece(new ChessPosition(8,3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        this.addPiece(new ChessPosition(8,4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        this.addPiece(new ChessPosition(8,5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        this.addPiece(new ChessPosition(8,6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        this.addPiece(new ChessPosition(8,7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        this.addPiece(new ChessPosition(8,8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        this.addPiece(ChessPosition.of(8,1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        this.addPiece(ChessPosition.of(8,2), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(8,3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(8,4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        this.addPiece(ChessPosition.of(8,5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        this.addPiece(ChessPosition.of(8,6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        this.addPiece(ChessPosition.of(8,7), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        this.addPiece(ChessPosition.of(8,8), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
     }
 
     @Override
@@ -94,7 +443,7 @@ public class ChessBoard {
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(boardData);
+        return Long.hashCode(getZobristKey());
     }
 
     @Override
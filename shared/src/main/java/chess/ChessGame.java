@@ -1,5 +1,7 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Objects;
@@ -10,11 +12,32 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(GameJsonAdapter.class)
 public class ChessGame {
 
+    // Plies without a capture or pawn move after which the game is drawn
+    private static final int FIFTY_MOVE_PLIES = 100;
+    // Power of two larger than FIFTY_MOVE_PLIES, so every position that can still repeat is kept
+    private static final int KEY_HISTORY_SIZE = 128;
+
     private TeamColor currentTurn;
     private ChessBoard currentBoard;
 
+    // Plies since the last capture or pawn move, plies played since the board was set, and the
+    // position key before each of those plies (a ring buffer indexed by ply, serialized by GameJsonAdapter)
+    private int halfmoveClock;
+    private int plyCount;
+    private transient long[] keyHistory = new long[KEY_HISTORY_SIZE];
+    // Fullmove number of the position the board was set to, e.g. from FEN
+    private int startFullmove = 1;
+
+    // Castling rights and en passant square packed as a GameState word
+    private int gameState = GameState.pack(GameState.ALL_CASTLING, -1);
+
+    // Outcome of the last position it was computed for, recognised again by its position key
+    private transient GameOutcome cachedOutcome;
+    private transient long cachedOutcomeKey;
+
     public ChessGame() {
         // Set up initial Board
         this.currentBoard = new ChessBoard();
@@ -24,6 +47,21 @@ public class ChessGame {
         setTeamTurn(TeamColor.WHITE);
     }
 
+    /**
+     * Creates an independent copy of a game that can be played without affecting the original
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        this.currentBoard = new ChessBoard(other.currentBoard);
+        this.currentTurn = other.currentTurn;
+        this.halfmoveClock = other.halfmoveClock;
+        this.plyCount = other.plyCount;
+        this.startFullmove = other.startFullmove;
+        this.keyHistory = other.keyHistory.clone();
+        this.gameState = other.gameState;
+    }
+
     /**
      * @return Which team's turn it is
      */
@@ -37,6 +75,10 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
+        // An en passant capture belongs to the team whose turn it is, so it can't survive a change of turn
+        if (team != currentTurn) {
+            gameState = GameState.pack(GameState.castlingRights(gameState), -1);
+        }
         this.currentTurn = team;
     }
 
@@ -57,7 +99,34 @@ public class ChessGame {
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
         ChessPiece pieceAtPosition = currentBoard.getPiece(startPosition);
-        return getValidPositionMovesForBoard(currentBoard, pieceAtPosition.getTeamColor(), startPosition);
+        if (pieceAtPosition == null) {
+            return null;
+        }
+
+        return getValidPositionMoves(pieceAtPosition.getTeamColor(), startPosition);
+    }
+
+    /**
+     * Gets every legal move for the team whose turn it is
+     *
+     * @return Set of legal moves for the current team
+     */
+    public Collection<ChessMove> legalMoves() {
+        return legalMoves(currentTurn);
+    }
+
+    /**
+     * Gets every legal move for a team, regardless of whose turn it is
+     *
+     * @param teamColor the team to get legal moves for
+     * @return Set of legal moves for the team
+     */
+    public Collection<ChessMove> legalMoves(TeamColor teamColor) {
+        HashSet<ChessMove> moves = new HashSet<>();
+        MoveList packedMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(currentBoard, teamColor, ~0L, stateFor(teamColor), packedMoves);
+        packedMoves.toChessMoves(moves);
+        return moves;
     }
 
     /**
@@ -68,8 +137,6 @@ public class ChessGame {
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
         ChessPosition startPosition = move.getStartPosition();
-        ChessPosition endPosition = move.getEndPosition();
-        ChessPiece.PieceType promotionPieceType = move.getPromotionPiece();
         ChessPiece existingPiece = currentBoard.getPiece(startPosition);
 
         // No piece; can't be moved
@@ -84,88 +151,165 @@ public class ChessGame {
             throw new InvalidMoveException("Not " + movingColor + "'s turn");
         }
 
-        Collection<ChessMove> validPieceMoves = validMoves(startPosition);
-
-        // If move is found amidst valid moves, make the move; Else, the move cannot be performed
-        if (validPieceMoves.contains(move)) {
-            currentBoard.addPiece(startPosition, null);
-            currentBoard.addPiece(
-                endPosition,
-                promotionPieceType != null ? new ChessPiece(movingColor, promotionPieceType) : existingPiece
-            );
+        // If the move is legal, make the move; Else, the move cannot be performed
+        if (isLegal(move)) {
+            keyHistory[plyCount & (KEY_HISTORY_SIZE - 1)] = getPositionKey();
+            advance(currentBoard.makeMove(move));
         } else {
             throw new InvalidMoveException("Invalid Move:" + move);
         }
+    }
+
+    /**
+     * Determines if a move is legal for the team of the piece being moved, checking only that
+     * move rather than building the piece's full set of valid moves
+     *
+     * @param move the move to test
+     * @return True if the move is legal; false if it isn't, or if there is no piece to move
+     */
+    public boolean isLegal(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        if (!onBoard(start) || !onBoard(end)) {
+            return false;
+        }
 
-        // Set the turn to the next team
-        currentTurn = movingColor == TeamColor.BLACK ? TeamColor.WHITE : TeamColor.BLACK;
+        ChessPiece piece = currentBoard.getPiece(start);
+        if (piece == null) {
+            return false;
+        }
+
+        TeamColor teamColor = piece.getTeamColor();
+        return MoveGenerator.isLegal(currentBoard, teamColor, Bitboards.squareOf(start), Bitboards.squareOf(end),
+            move.getPromotionPiece(), stateFor(teamColor));
+    }
+
+    private static boolean onBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8 && position.getColumn() >= 1 && position.getColumn() <= 8;
     }
 
     /**
-     * Determines if the given team is in check
+     * Appends every legal move for the team whose turn it is to a move list
      *
-     * @param teamColor which team to check for check
-     * @return True if the specified team is in check
+     * @param moves list the packed legal moves are appended to
      */
-    public boolean isInCheck(TeamColor teamColor) {
-        return arbitraryBoardCheck(teamColor, currentBoard); // Check current board for check
+    public void generateLegalMoves(MoveList moves) {
+        MoveGenerator.generateLegalMoves(currentBoard, currentTurn, ~0L, gameState, moves);
     }
 
-    // Check to see if a provided team is in check on a provided board
-    private boolean arbitraryBoardCheck(TeamColor teamColor, ChessBoard boardToCheck) {
-        final ChessPosition kingPosition = findKingPosition(teamColor, boardToCheck);
+    /**
+     * Makes a generated move in place without validating it, for callers such as search
+     * and perft that only ever play moves from generateLegalMoves
+     *
+     * @param move packed legal move for the team whose turn it is
+     * @return Undo record to pass to unmakeMove
+     */
+    public long makeMoveUnchecked(int move) {
+        keyHistory[plyCount & (KEY_HISTORY_SIZE - 1)] = getPositionKey();
+        return advance(currentBoard.makeMove(move));
+    }
 
-        // Check if king was found
-        if (kingPosition == null) {
-            return false;
-        }
+    // Pass the turn after a board move, updating the clock and state and adding their old values to the undo record
+    private long advance(long boardUndo) {
+        long undo = MoveUndo.withGameState(MoveUndo.withHalfmoveClock(boardUndo, halfmoveClock), gameState);
+        int from = MoveUndo.from(boardUndo);
+        int to = MoveUndo.to(boardUndo);
+        boolean doublePush = MoveUndo.movedPiece(boardUndo) % 6 == ChessPiece.PieceType.PAWN.ordinal()
+            && Math.abs(to - from) == 16;
+
+        gameState = GameState.pack(
+            GameState.castlingAfterMove(GameState.castlingRights(gameState), from, to),
+            doublePush ? capturableEnPassantSquare((from + to) / 2, currentTurn) : -1
+        );
+        halfmoveClock = MoveUndo.isIrreversible(boardUndo) ? 0 : halfmoveClock + 1;
+        plyCount++;
+        currentTurn = opponent(currentTurn);
+        cachedOutcome = null;
+        return undo;
+    }
 
-        // Check for potential attacks
-        for (int row=1; row<=8; row++) {
-            for (int col=1; col<=8; col++) {
-                if (checkForAttacks(teamColor, boardToCheck, row, col, kingPosition)) {
-                    return true;
-                }
-            }
-        }
+    /**
+     * Takes back the most recent move made with makeMoveUnchecked
+     *
+     * @param undo the record returned when the move was made
+     */
+    public void unmakeMove(long undo) {
+        currentBoard.unmakeMove(undo);
+        halfmoveClock = MoveUndo.halfmoveClock(undo);
+        gameState = MoveUndo.gameState(undo);
+        plyCount--;
+        currentTurn = opponent(currentTurn);
+        cachedOutcome = null;
+    }
 
-        // No opponent move attacks king - not in check
-        return false;
+    // Only record an en passant square an enemy pawn could actually capture on, so equal positions hash equally
+    private int capturableEnPassantSquare(int target, TeamColor pushingColor) {
+        long capturers = Bitboards.PAWN_ATTACKS[pushingColor.ordinal()][target]
+            & currentBoard.getPieces(opponent(pushingColor), ChessPiece.PieceType.PAWN);
+        return capturers != 0 ? target : -1;
     }
 
-    private static boolean checkForAttacks(TeamColor teamColor, ChessBoard boardToCheck, int row, int col, ChessPosition kingPosition) {
-        ChessPosition currentPosition = new ChessPosition(row, col);
-        ChessPiece currentPiece = boardToCheck.getPiece(currentPosition);
-        if (currentPiece != null) {
-            if (currentPiece.getTeamColor() != teamColor) {
-                Collection<ChessMove> opponentMoves = currentPiece.pieceMoves(boardToCheck, currentPosition);
-                return opponentMoves.stream().anyMatch(
-                    move -> move.getEndPosition().equals(kingPosition)
-                );
-            }
-        }
-        return false;
+    // En passant is only ever available to the team whose turn it is
+    private int stateFor(TeamColor teamColor) {
+        return teamColor == currentTurn ? gameState : GameState.pack(GameState.castlingRights(gameState), -1);
+    }
+
+    /**
+     * Gets the castling moves still allowed, as a 4-bit set: 1 white kingside, 2 white queenside,
+     * 4 black kingside and 8 black queenside
+     *
+     * @return Castling rights of both teams
+     */
+    public int getCastlingRights() {
+        return GameState.castlingRights(gameState);
+    }
+
+    /**
+     * Gets the square a pawn of the team to move could capture en passant on
+     *
+     * @return Square index (0-63, a1 = 0), or -1 if no en passant capture is possible
+     */
+    public int getEnPassantSquare() {
+        return GameState.enPassantSquare(gameState);
+    }
+
+    // Used when a position is loaded with known history, e.g. from FEN
+    void setCastlingAndEnPassant(int castlingRights, int enPassantSquare) {
+        gameState = GameState.pack(
+            castlingRights,
+            enPassantSquare < 0 ? -1 : capturableEnPassantSquare(enPassantSquare, opponent(currentTurn))
+        );
+        cachedOutcome = null;
+    }
+
+    private static TeamColor opponent(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
+    /**
+     * Determines if the given team is in check
+     *
+     * @param teamColor which team to check for check
+     * @return True if the specified team is in check
+     */
+    public boolean isInCheck(TeamColor teamColor) {
+        return arbitraryBoardCheck(teamColor, currentBoard); // Check current board for check
     }
 
-    // Find the position of the king on a given board
-    private static ChessPosition findKingPosition(TeamColor teamColor, ChessBoard boardToCheck) {
-        ChessPosition kingPosition = null;
-
-        // Iterate over board to find king
-        for (int row=1; row<=8; row++) {
-            for (int col=1; col<=8; col++) {
-                ChessPosition currentPosition = new ChessPosition(row, col);
-                ChessPiece currentPiece = boardToCheck.getPiece(currentPosition);
-                if (currentPiece != null) {
-                    if (currentPiece.getTeamColor() == teamColor &&
-                            currentPiece.getPieceType() == ChessPiece.PieceType.KING) {
-                        kingPosition = currentPosition;
-                    }
-                }
+    // Check to see if a provided team is in check on a provided board
+    static boolean arbitraryBoardCheck(TeamColor teamColor, ChessBoard boardToCheck) {
+        TeamColor opponentColor = opponent(teamColor);
+
+        // A board without a king can't be in check; otherwise see if any opponent piece reaches the king square
+        long kings = boardToCheck.getPieces(teamColor, ChessPiece.PieceType.KING);
+        while (kings != 0) {
+            if (boardToCheck.isSquareAttacked(Bitboards.lsb(kings), opponentColor)) {
+                return true;
             }
+            kings = Bitboards.clearLsb(kings);
         }
 
-        return kingPosition;
+        return false;
     }
 
     /**
@@ -175,118 +319,205 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
+        if (teamColor == currentTurn) {
+            return getOutcome() == GameOutcome.CHECKMATE;
+        }
         if (!isInCheck(teamColor)) {
             return false;
         }
 
         // If there are no moves, in checkmate
-        return getValidMovesForBoard(currentBoard, teamColor).isEmpty();
+        return !MoveGenerator.hasLegalMove(currentBoard, teamColor, stateFor(teamColor));
     }
 
-    // Get all possible moves for a team on a given board (potential or current)
-    private HashSet<ChessMove> getValidMovesForBoard(ChessBoard boardToSearch, TeamColor teamColor) {
-        // List of potential moves
-        HashSet<ChessMove> validMoves = new HashSet<>();
+    public HashSet<ChessMove> getValidMovesForPositionOnBoard(ChessPosition startingPosition) {
+        return getValidPositionMoves(currentBoard.getPiece(startingPosition).getTeamColor(), startingPosition);
+    }
 
-        // Check for potential moves
-        for (int row=1; row<=8; row++) {
-            for (int col=1; col<8; col++) {
-                ChessPosition currentPosition = new ChessPosition(row, col);
-                HashSet<ChessMove> validPieceMoves = getValidPositionMovesForBoard(boardToSearch, teamColor, currentPosition);
-                validMoves.addAll(validPieceMoves);
-            }
+    // Get legal moves for the piece on a single position of the current board
+    private HashSet<ChessMove> getValidPositionMoves(TeamColor teamColor, ChessPosition currentPosition) {
+        HashSet<ChessMove> validPieceMoves = new HashSet<>();
+        long fromMask = Bitboards.bit(Bitboards.squareOf(currentPosition));
+        MoveList packedMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(currentBoard, teamColor, fromMask, stateFor(teamColor), packedMoves);
+        packedMoves.toChessMoves(validPieceMoves);
+        return validPieceMoves;
+    }
+
+    /**
+     * Determines if the given team is in stalemate, which here is defined as having
+     * no valid moves
+     *
+     * @param teamColor which team to check for stalemate
+     * @return True if the specified team is in stalemate, otherwise false
+     */
+    public boolean isInStalemate(TeamColor teamColor) {
+        if (teamColor == currentTurn) {
+            return getOutcome() == GameOutcome.STALEMATE;
+        }
+        if (isInCheck(teamColor)) {
+            return false;
         }
 
-        return validMoves;
+        // If not in check but no valid moves available, stalemate
+        return !MoveGenerator.hasLegalMove(currentBoard, teamColor, stateFor(teamColor));
     }
 
-    public HashSet<ChessMove> getValidMovesForPositionOnBoard(ChessPosition startingPosition) {
-        return getValidPositionMovesForBoard(currentBoard, currentBoard.getPiece(startingPosition).getTeamColor(), startingPosition);
-    }
+    /**
+     * Determines whether the team to move is in check, checkmate or stalemate.
+     * <p>
+     * The result is computed with one check test and at most one move generation, then reused
+     * until the position changes, so callers can query it freely after every move.
+     *
+     * @return Outcome of the current position for the team whose turn it is
+     */
+    public GameOutcome getOutcome() {
+        long key = getPositionKey();
+        if (cachedOutcome != null && cachedOutcomeKey == key) {
+            return cachedOutcome;
+        }
 
-    // Get valid moves for a single position on an arbitrary board (either potential or current)
-    private HashSet<ChessMove> getValidPositionMovesForBoard(ChessBoard boardToSearch, TeamColor teamColor, ChessPosition currentPosition) {
-        ChessPiece currentPiece = boardToSearch.getPiece(currentPosition);
-        HashSet<ChessMove> validPieceMoves = new HashSet<>();
+        // Running out of moves decides the game before any draw rule; a mate on the hundredth ply stands
+        boolean inCheck = isInCheck(currentTurn);
+        GameOutcome outcome;
+        if (!MoveGenerator.hasLegalMove(currentBoard, currentTurn, gameState)) {
+            outcome = inCheck ? GameOutcome.CHECKMATE : GameOutcome.STALEMATE;
+        } else if (hasInsufficientMaterial()) {
+            outcome = GameOutcome.INSUFFICIENT_MATERIAL;
+        } else if (isThreefoldRepetition()) {
+            outcome = GameOutcome.THREEFOLD_REPETITION;
+        } else if (halfmoveClock >= FIFTY_MOVE_PLIES) {
+            outcome = GameOutcome.FIFTY_MOVE_RULE;
+        } else {
+            outcome = inCheck ? GameOutcome.CHECK : GameOutcome.IN_PROGRESS;
+        }
 
-        // If there's no current piece, there are no valid moves
-        if (currentPiece != null) {
-
-            // If the current team is trying to move a piece that isn't theirs, there are no valid moves
-            if (currentPiece.getTeamColor() == teamColor) {
-                // Fetch possible moves
-                Collection<ChessMove> pieceMoves = currentPiece.pieceMoves(boardToSearch, currentPosition);
-
-                // Iterate over these possible moves and create a potential board to see if it puts the team in check
-                for (ChessMove move : pieceMoves) {
-                    ChessBoard potentialBoard = createPotentialBoard(boardToSearch, move);
-                    if (!arbitraryBoardCheck(teamColor, potentialBoard)) {
-                        validPieceMoves.add(move); // If move doesn't put team in check, it's valid
-                    }
-                }
+        cachedOutcome = outcome;
+        cachedOutcomeKey = key;
+        return outcome;
+    }
+
+    /**
+     * Determines if neither team can ever checkmate, whatever is played: bare kings, a single
+     * minor piece, or only bishops that all stand on the same square colour
+     *
+     * @return True if the position is a dead draw
+     */
+    public boolean hasInsufficientMaterial() {
+        long signature = currentBoard.getMaterialSignature();
+        int knights = 0;
+        int bishops = 0;
+        for (TeamColor color : TeamColor.values()) {
+            if (ChessBoard.getPieceCount(signature, color, ChessPiece.PieceType.PAWN) > 0
+                    || ChessBoard.getPieceCount(signature, color, ChessPiece.PieceType.ROOK) > 0
+                    || ChessBoard.getPieceCount(signature, color, ChessPiece.PieceType.QUEEN) > 0) {
+                return false;
             }
+            knights += ChessBoard.getPieceCount(signature, color, ChessPiece.PieceType.KNIGHT);
+            bishops += ChessBoard.getPieceCount(signature, color, ChessPiece.PieceType.BISHOP);
         }
 
-        return validPieceMoves;
+        if (knights + bishops <= 1) {
+            return true;
+        } else if (knights > 0) {
+            return false;
+        }
+
+        long bishopSquares = currentBoard.getPieces(TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+            | currentBoard.getPieces(TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+        return (bishopSquares & Bitboards.LIGHT_SQUARES) == 0 || (bishopSquares & ~Bitboards.LIGHT_SQUARES) == 0;
+    }
+
+    /**
+     * Determines if the current position has occurred before since the last capture or pawn
+     * move, which is how a search recognises a drawing cycle without waiting for threefold
+     *
+     * @return True if the position is a repetition
+     */
+    public boolean isRepetition() {
+        return hasOccurredBefore(1);
     }
 
-    // Create a board that represents a potential future for a provided board given a potential move
-    private static ChessBoard createPotentialBoard(ChessBoard boardToSearch, ChessMove move) {
-        // Create new board so that it can be changed and checked without affecting currentBoard
-        ChessBoard potentialBoard = new ChessBoard();
+    private boolean isThreefoldRepetition() {
+        return hasOccurredBefore(2);
+    }
 
-        // Unpack move to avoid repetition
-        ChessPosition startPosition = move.getStartPosition();
-        ChessPosition endPosition = move.getEndPosition();
-        ChessPiece.PieceType promotionPiece = move.getPromotionPiece();
-
-        // Get piece and then generate resultant piece of move
-        ChessPiece currentPiece = boardToSearch.getPiece(startPosition);
-        ChessPiece resultantPiece = promotionPiece == null ?
-            currentPiece :
-            new ChessPiece(currentPiece.getTeamColor(), promotionPiece);
-
-        // Iterate over the board; add move in place, add remaining pieces to board in existing locations
-        for (int row=1; row<=8; row++) {
-            for (int col=1; col<=8; col++) {
-                ChessPosition currentPosition = new ChessPosition(row, col);
-                ChessPiece searchedPiece = boardToSearch.getPiece(currentPosition);
-
-                if (currentPosition.equals(endPosition)) {
-                    potentialBoard.addPiece(currentPosition, resultantPiece);
-                } else if (searchedPiece != null && !currentPosition.equals(startPosition)) {
-                    potentialBoard.addPiece(currentPosition, searchedPiece);
-                }
+    // Same side to move can only recur an even number of plies back, and never across an irreversible move
+    private boolean hasOccurredBefore(int times) {
+        long key = getPositionKey();
+        int earliestPly = Math.max(plyCount - Math.min(halfmoveClock, KEY_HISTORY_SIZE - 1), 0);
+        int repetitions = 0;
+        for (int ply=plyCount-2; ply>=earliestPly; ply-=2) {
+            if (keyHistory[ply & (KEY_HISTORY_SIZE - 1)] == key && ++repetitions == times) {
+                return true;
             }
         }
+        return false;
+    }
+
+    // Keys of the earlier positions a repetition check can still read, oldest first
+    long[] getRepetitionKeys() {
+        int count = Math.min(Math.min(halfmoveClock, KEY_HISTORY_SIZE - 1), plyCount);
+        long[] keys = new long[count];
+        for (int i=0; i<count; i++) {
+            keys[i] = keyHistory[(plyCount - count + i) & (KEY_HISTORY_SIZE - 1)];
+        }
+        return keys;
+    }
 
-        // Return new potential board
-        return potentialBoard;
+    // Restores keys written by getRepetitionKeys, or a whole ring buffer as earlier versions serialized it
+    void setRepetitionKeys(long[] keys) {
+        if (keys.length == KEY_HISTORY_SIZE) {
+            keyHistory = keys.clone();
+            return;
+        }
+        int count = Math.min(Math.min(keys.length, plyCount), KEY_HISTORY_SIZE - 1);
+        for (int i=0; i<count; i++) {
+            keyHistory[(plyCount - count + i) & (KEY_HISTORY_SIZE - 1)] = keys[keys.length - count + i];
+        }
+        cachedOutcome = null;
     }
 
     /**
-     * Determines if the given team is in stalemate, which here is defined as having
-     * no valid moves
-     *
-     * @param teamColor which team to check for stalemate
-     * @return True if the specified team is in stalemate, otherwise false
+     * @return Number of plies since the last capture or pawn move
      */
-    public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-            return false;
-        }
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
 
-        // If not in check but no valid moves available, stalemate
-        return getValidMovesForBoard(currentBoard, teamColor).isEmpty();
+    // Used when a position is loaded with a known clock, e.g. from FEN
+    void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+        cachedOutcome = null;
+    }
+
+    /**
+     * @return Number of the current full move, starting at 1 and increasing after each black move
+     */
+    public int getFullmoveNumber() {
+        // The team that moved first since the board was set follows from the plies played and whose turn it is now
+        TeamColor firstTurn = plyCount % 2 == 0 ? currentTurn : opponent(currentTurn);
+        return startFullmove + (plyCount + (firstTurn == TeamColor.BLACK ? 1 : 0)) / 2;
+    }
+
+    // Used when a position is loaded with a known move number, e.g. from FEN; must follow setBoard
+    void setFullmoveNumber(int fullmoveNumber) {
+        this.startFullmove = fullmoveNumber;
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board, starting a new move history. Kings and
+     * rooks on their starting squares are taken not to have moved, so they may castle.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
         this.currentBoard = board;
+        halfmoveClock = 0;
+        plyCount = 0;
+        startFullmove = 1;
+        gameState = GameState.pack(GameState.inferCastlingRights(board), -1);
+        cachedOutcome = null;
     }
 
     /**
@@ -298,6 +529,24 @@ public class ChessGame {
         return currentBoard;
     }
 
+    /**
+     * Gets a 64-bit Zobrist key for the position: piece placement, the side to move, castling
+     * rights and en passant file
+     *
+     * @return Key that is equal for equal positions and stable across JVMs
+     */
+    public long getPositionKey() {
+        long key = currentBoard.getZobristKey() ^ Zobrist.castling(GameState.castlingRights(gameState));
+        if (currentTurn == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        int enPassantSquare = GameState.enPassantSquare(gameState);
+        if (enPassantSquare >= 0) {
+            key ^= Zobrist.enPassantFile(enPassantSquare & 7);
+        }
+        return key;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) {
@@ -307,9 +556,14 @@ public class ChessGame {
         return currentTurn == chessGame.currentTurn && Objects.equals(currentBoard, chessGame.currentBoard);
     }
 
+    // Only what equals compares goes into the hash: games that differ in castling or en passant rights can still be equal
     @Override
     public int hashCode() {
-        return Objects.hash(currentTurn, currentBoard);
+        long key = currentBoard.getZobristKey();
+        if (currentTurn == TeamColor.BLACK) {
+            key ^= Zobrist.blackToMove();
+        }
+        return Long.hashCode(key);
     }
 
     @Override
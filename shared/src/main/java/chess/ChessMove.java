@@ -47,10 +47,10 @@ public class ChessMove {
 
     @Override
     public boolean equals(Object o) {
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        } else if (this == o) {
+        if (this == o) {
             return true;
+        } else if (o == null || getClass() != o.getClass()) {
+            return false;
         }
 
         ChessMove chessMove = (ChessMove) o;
@@ -61,7 +61,8 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(from, to, promotionType);
+        int result = 31 * Objects.hashCode(from) + Objects.hashCode(to);
+        return 31 * result + (promotionType == null ? 0 : promotionType.ordinal() + 1);
     }
 
     @Override
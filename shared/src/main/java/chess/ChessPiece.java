@@ -2,7 +2,6 @@ package chess;
 
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Objects;
 
 /**
  * Represents a single chess piece
@@ -15,11 +14,37 @@ public class ChessPiece {
     private final ChessGame.TeamColor color;
     private final PieceType type;
 
+    // Canonical instance of each of the 12 pieces, indexed by bitboard slot
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor pieceColor : ChessGame.TeamColor.values()) {
+            for (PieceType pieceType : PieceType.values()) {
+                PIECES[ChessBoard.pieceIndex(pieceColor, pieceType)] = new ChessPiece(pieceColor, pieceType);
+            }
+        }
+    }
+
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.color = pieceColor;
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance of a piece instead of allocating a new one
+     *
+     * @param pieceColor the team the piece belongs to
+     * @param type       the type of piece
+     * @return The canonical piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[ChessBoard.pieceIndex(pieceColor, type)];
+    }
+
+    static ChessPiece ofIndex(int pieceIndex) {
+        return PIECES[pieceIndex];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -83,23 +108,23 @@ public class ChessPiece {
         switch(color) {
             case WHITE:
                 if (myPosition.getRow() + 1 <= 8) {
-                    ChessPosition whiteSingleMove = new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn());
+                    ChessPosition whiteSingleMove = ChessPosition.of(myPosition.getRow() + 1, myPosition.getColumn());
                     addSingleMoves(board, myPosition, moves, whiteSingleMove);
                 }
 
                 if (myPosition.getRow() + 1 <= 8 && myPosition.getColumn() - 1 >= 1) {
-                    ChessPosition whiteCaptureLeft = new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() - 1);
+                    ChessPosition whiteCaptureLeft = ChessPosition.of(myPosition.getRow() + 1, myPosition.getColumn() - 1);
                     handlePawnCapture(board, myPosition, moves, whiteCaptureLeft);
                 }
 
                 if (myPosition.getRow() + 1 <= 8 && myPosition.getColumn() + 1 <= 8) {
-                    ChessPosition whiteCaptureRight = new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() + 1);
+                    ChessPosition whiteCaptureRight = ChessPosition.of(myPosition.getRow() + 1, myPosition.getColumn() + 1);
                     handlePawnCapture(board, myPosition, moves, whiteCaptureRight);
                 }
 
                 if (myPosition.getRow() == 2) {
-                    ChessPosition whiteBlockedPosition = new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn());
-                    ChessPosition whiteDoublePos = new ChessPosition(myPosition.getRow() + 2, myPosition.getColumn());
+                    ChessPosition whiteBlockedPosition = ChessPosition.of(myPosition.getRow() + 1, myPosition.getColumn());
+                    ChessPosition whiteDoublePos = ChessPosition.of(myPosition.getRow() + 2, myPosition.getColumn());
 
                     if (board.getPiece(whiteBlockedPosition) == null && board.getPiece(whiteDoublePos) == null) {
                         moves.add(new ChessMove(myPosition, whiteDoublePos, null));
@@ -108,23 +133,23 @@ public class ChessPiece {
                 break;
             case BLACK:
                 if (myPosition.getRow() - 1 >= 1) {
-                    ChessPosition blackSingleMove = new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn());
+                    ChessPosition blackSingleMove = ChessPosition.of(myPosition.getRow() - 1, myPosition.getColumn());
                     addSingleMoves(board, myPosition, moves, blackSingleMove);
                 }
 
                 if (myPosition.getRow() - 1 >= 1 && myPosition.getColumn() - 1 >= 1) {
-                    ChessPosition blackCaptureLeft = new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() - 1);
+                    ChessPosition blackCaptureLeft = ChessPosition.of(myPosition.getRow() - 1, myPosition.getColumn() - 1);
                     handlePawnCapture(board, myPosition, moves, blackCaptureLeft);
                 }
 
                 if (myPosition.getRow() - 1 >= 1 && myPosition.getColumn() + 1 <= 8) {
-                    ChessPosition blackCaptureRight = new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() + 1);
+                    ChessPosition blackCaptureRight = ChessPosition.of(myPosition.getRow() - 1, myPosition.getColumn() + 1);
                     handlePawnCapture(board, myPosition, moves, blackCaptureRight);
                 }
 
                 if (myPosition.getRow() == 7) {
-                    ChessPosition blackBlockedPosition = new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn());
-                    ChessPosition blackDoublePos = new ChessPosition(myPosition.getRow() - 2, myPosition.getColumn());
+                    ChessPosition blackBlockedPosition = ChessPosition.of(myPosition.getRow() - 1, myPosition.getColumn());
+                    ChessPosition blackDoublePos = ChessPosition.of(myPosition.getRow() - 2, myPosition.getColumn());
 
                     if (board.getPiece(blackBlockedPosition) == null && board.getPiece(blackDoublePos) == null) {
                         moves.add(new ChessMove(myPosition, blackDoublePos, null));
@@ -135,185 +160,28 @@ public class ChessPiece {
     }
 
     private void getRookMoves(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves) {
-        ChessPosition[] rookUpPositions = getDirectedPositions(myPosition, Direction.UP, 8);
-        generateMovesFromPositions(board, myPosition, moves, rookUpPositions);
-
-        ChessPosition[] rookRightPositions = getDirectedPositions(myPosition, Direction.RIGHT, 8);
-        generateMovesFromPositions(board, myPosition, moves, rookRightPositions);
-
-        ChessPosition[] rookDownPositions = getDirectedPositions(myPosition, Direction.DOWN, 8);
-        generateMovesFromPositions(board, myPosition, moves, rookDownPositions);
-
-        ChessPosition[] rookLeftPositions = getDirectedPositions(myPosition, Direction.LEFT, 8);
-        generateMovesFromPositions(board, myPosition, moves, rookLeftPositions);
+        long rookTargets = SlidingAttacks.rookAttacks(Bitboards.squareOf(myPosition), board.getOccupancy());
+        addMovesFromMask(board, myPosition, moves, rookTargets);
     }
 
     private void getKnightMoves(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves) {
-        getKnightUpRightMoves(board, myPosition, moves);
-        getKnightDownRightMoves(board, myPosition, moves);
-        getKnightDownLeftMoves(board, myPosition, moves);
-        getKnightUpLeftMoves(board, myPosition, moves);
-    }
-
-    private void getKnightUpLeftMoves(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves) {
-        if (myPosition.getRow() + 1 <= 8 && myPosition.getColumn() - 2 >= 1) {
-            ChessPosition shorterUpLeft = new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() - 2);
-            ChessPiece shorterUpLeftTarget = board.getPiece(shorterUpLeft);
-
-            if (shorterUpLeftTarget != null) {
-                if (shorterUpLeftTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, shorterUpLeft, null));
-                }
-            } else {
-                moves.add(new ChessMove(myPosition, shorterUpLeft, null));
-            }
-        }
-
-        if (myPosition.getRow() + 2 <= 8 && myPosition.getColumn() - 1 >= 1) {
-            ChessPosition tallerUpLeft = new ChessPosition(myPosition.getRow() + 2, myPosition.getColumn() - 1);
-            ChessPiece tallerUpLeftTarget = board.getPiece(tallerUpLeft);
-
-            if (tallerUpLeftTarget != null) {
-                if (tallerUpLeftTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, tallerUpLeft, null));
-                }
-            } else {
-                moves.add(new ChessMove(myPosition, tallerUpLeft, null));
-            }
-        }
-    }
-
-    private void getKnightDownLeftMoves(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves) {
-        if (myPosition.getRow() - 2 >= 1 && myPosition.getColumn() - 1 >= 1) {
-            ChessPosition tallerDownLeft = new ChessPosition(myPosition.getRow() - 2, myPosition.getColumn() - 1);
-            ChessPiece tallerDownLeftTarget = board.getPiece(tallerDownLeft);
-
-            if (tallerDownLeftTarget != null) {
-                if (tallerDownLeftTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, tallerDownLeft, null));
-                }
-            } else {
-                moves.add(new ChessMove(myPosition, tallerDownLeft, null));
-            }
-        }
-
-        if (myPosition.getRow() - 1 >= 1 && myPosition.getColumn() - 2 >= 1) {
-            ChessPosition shorterDownLeft = new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() - 2);
-            ChessPiece shorterDownLeftTarget = board.getPiece(shorterDownLeft);
-
-            if (shorterDownLeftTarget != null) {
-                if (shorterDownLeftTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, shorterDownLeft, null));
-                }
-            } else {
-                moves.add(new ChessMove(myPosition, shorterDownLeft, null));
-            }
-        }
-    }
-
-    private void getKnightDownRightMoves(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves) {
-        if (myPosition.getRow() - 1 >= 1 && myPosition.getColumn() + 2 <= 8) {
-            ChessPosition shorterDownRight = new ChessPosition(myPosition.getRow() - 1, myPosition.getColumn() + 2);
-            ChessPiece shorterDownRightTarget = board.getPiece(shorterDownRight);
-
-            if (shorterDownRightTarget != null) {
-                if (shorterDownRightTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, shorterDownRight, null));
-                }
-            } else {
-                moves.add(new ChessMove(myPosition, shorterDownRight, null));
-            }
-        }
-
-        if (myPosition.getRow() - 2 >= 1 && myPosition.getColumn() + 1 <= 8) {
-            ChessPosition tallerDownRight = new ChessPosition(myPosition.getRow() - 2, myPosition.getColumn() + 1);
-            ChessPiece tallerDownRightTarget = board.getPiece(tallerDownRight);
-
-            if (tallerDownRightTarget != null) {
-                if (tallerDownRightTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, tallerDownRight, null));
-                }
-            } else {
-                moves.add(new ChessMove(myPosition, tallerDownRight, null));
-            }
-        }
-    }
-
-    private void getKnightUpRightMoves(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves) {
-        if (myPosition.getRow() + 2 <= 8 && myPosition.getColumn() + 1 <= 8) {
-            ChessPosition tallerUpRight = new ChessPosition(myPosition.getRow() + 2, myPosition.getColumn() + 1);
-            ChessPiece knightTallerUpRightTarget = board.getPiece(tallerUpRight);
-
-            if (knightTallerUpRightTarget != null) {
-                if (knightTallerUpRightTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, tallerUpRight, null));
-                }
-            } else {
-                moves.add(new ChessMove(myPosition, tallerUpRight, null));
-            }
-        }
-
-        if (myPosition.getRow() + 1 <= 8 && myPosition.getColumn() + 2 <= 8) {
-            ChessPosition shorterUpRight = new ChessPosition(myPosition.getRow() + 1, myPosition.getColumn() + 2);
-            ChessPiece shorterUpRightTarget = board.getPiece(shorterUpRight);
-
-            if (shorterUpRightTarget != null) {
-                if (shorterUpRightTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, shorterUpRight, null));
-                }
-            } else {
-                moves.add(new ChessMove(myPosition, shorterUpRight, null));
-            }
-        }
+        long knightTargets = Bitboards.KNIGHT_ATTACKS[Bitboards.squareOf(myPosition)];
+        addMovesFromMask(board, myPosition, moves, knightTargets);
     }
 
     private void getBishopMoves(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves) {
-        ChessPosition[] bishopUpRightPositions = getDirectedPositions(myPosition, Direction.UP_RIGHT, 8);
-        generateMovesFromPositions(board, myPosition, moves, bishopUpRightPositions);
-        ChessPosition[] bishopDownRightPositions = getDirectedPositions(myPosition, Direction.DOWN_RIGHT, 8);
-        generateMovesFromPositions(board, myPosition, moves, bishopDownRightPositions);
-        ChessPosition[] bishopDownLeftPositions = getDirectedPositions(myPosition, Direction.DOWN_LEFT, 8);
-        generateMovesFromPositions(board, myPosition, moves, bishopDownLeftPositions);
-        ChessPosition[] bishopUpLeftPositions = getDirectedPositions(myPosition, Direction.UP_LEFT, 8);
-        generateMovesFromPositions(board, myPosition, moves, bishopUpLeftPositions);
+        long bishopTargets = SlidingAttacks.bishopAttacks(Bitboards.squareOf(myPosition), board.getOccupancy());
+        addMovesFromMask(board, myPosition, moves, bishopTargets);
     }
 
     private void getQueenMoves(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves) {
-        ChessPosition[] queenUpPositions = getDirectedPositions(myPosition, Direction.UP, 8);
-        generateMovesFromPositions(board, myPosition, moves, queenUpPositions);
-        ChessPosition[] queenUpRightPositions = getDirectedPositions(myPosition, Direction.UP_RIGHT, 8);
-        generateMovesFromPositions(board, myPosition, moves, queenUpRightPositions);
-        ChessPosition[] queenRightPositions = getDirectedPositions(myPosition, Direction.RIGHT, 8);
-        generateMovesFromPositions(board, myPosition, moves, queenRightPositions);
-        ChessPosition[] queenDownRightPositions = getDirectedPositions(myPosition, Direction.DOWN_RIGHT, 8);
-        generateMovesFromPositions(board, myPosition, moves, queenDownRightPositions);
-        ChessPosition[] queenDownPositions = getDirectedPositions(myPosition, Direction.DOWN, 8);
-        generateMovesFromPositions(board, myPosition, moves, queenDownPositions);
-        ChessPosition[] queenDownLeftPositions = getDirectedPositions(myPosition, Direction.DOWN_LEFT, 8);
-        generateMovesFromPositions(board, myPosition, moves, queenDownLeftPositions);
-        ChessPosition[] queenLeftPositions = getDirectedPositions(myPosition, Direction.LEFT, 8);
-        generateMovesFromPositions(board, myPosition, moves, queenLeftPositions);
-        ChessPosition[] queenUpLeftPositions = getDirectedPositions(myPosition, Direction.UP_LEFT, 8);
-        generateMovesFromPositions(board, myPosition, moves, queenUpLeftPositions);
+        long queenTargets = SlidingAttacks.queenAttacks(Bitboards.squareOf(myPosition), board.getOccupancy());
+        addMovesFromMask(board, myPosition, moves, queenTargets);
     }
 
     private void getKingMoves(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves) {
-        ChessPosition kingUp = getDirectedPositions(myPosition, Direction.UP, 1)[0];
-        getKingMove(board, myPosition, moves, kingUp);
-        ChessPosition kingUpRight = getDirectedPositions(myPosition, Direction.UP_RIGHT, 1)[0];
-        getKingMove(board, myPosition, moves, kingUpRight);
-        ChessPosition kingRight = getDirectedPositions(myPosition, Direction.RIGHT, 1)[0];
-        getKingMove(board, myPosition, moves, kingRight);
-        ChessPosition kingDownRight = getDirectedPositions(myPosition, Direction.DOWN_RIGHT, 1)[0];
-        getKingMove(board, myPosition, moves, kingDownRight);
-        ChessPosition kingDown = getDirectedPositions(myPosition, Direction.DOWN, 1)[0];
-        getKingMove(board, myPosition, moves, kingDown);
-        ChessPosition kingDownLeft = getDirectedPositions(myPosition, Direction.DOWN_LEFT, 1)[0];
-        getKingMove(board, myPosition, moves, kingDownLeft);
-        ChessPosition kingLeft = getDirectedPositions(myPosition, Direction.LEFT, 1)[0];
-        getKingMove(board, myPosition, moves, kingLeft);
-        ChessPosition kingUpLeft = getDirectedPositions(myPosition, Direction.UP_LEFT, 1)[0];
-        getKingMove(board, myPosition, moves, kingUpLeft);
+        long kingTargets = Bitboards.KING_ATTACKS[Bitboards.squareOf(myPosition)];
+        addMovesFromMask(board, myPosition, moves, kingTargets);
     }
 
     private void handlePawnCapture(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves, ChessPosition capturePosition) {
@@ -332,33 +200,13 @@ public class ChessPiece {
         }
     }
 
-    private void getKingMove(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves, ChessPosition position) {
-        if (position != null) {
-            ChessPiece kingUpRightTarget = board.getPiece(position);
-            if (kingUpRightTarget != null) {
-                if (kingUpRightTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, position, null));
-                }
-            } else {
-                moves.add(new ChessMove(myPosition, position, null));
-            }
-        }
-    }
-
-    private void generateMovesFromPositions(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves, ChessPosition[] targetPositions) {
-        for (int i=0; i<8; i++) {
-            if (targetPositions[i] == null) {
-                break;
-            }
-            ChessPiece queenTarget = board.getPiece(targetPositions[i]);
-            if (queenTarget == null) {
-                moves.add(new ChessMove(myPosition, targetPositions[i], null));
-            } else {
-                if (queenTarget.getTeamColor() != color) {
-                    moves.add(new ChessMove(myPosition, targetPositions[i], null));
-                }
-                break;
-            }
+    // Add a move to every square in a target mask that isn't held by one of this piece's own team
+    private void addMovesFromMask(ChessBoard board, ChessPosition myPosition, HashSet<ChessMove> moves, long targets) {
+        long openTargets = targets & ~board.getOccupancy(color);
+        while (openTargets != 0) {
+            int square = Bitboards.lsb(openTargets);
+            moves.add(new ChessMove(myPosition, ChessPosition.of(square), null));
+            openTargets = Bitboards.clearLsb(openTargets);
         }
     }
 
@@ -375,100 +223,12 @@ public class ChessPiece {
         }
     }
 
-    private enum Direction {
-        UP,
-        UP_RIGHT,
-        RIGHT,
-        DOWN_RIGHT,
-        DOWN,
-        DOWN_LEFT,
-        LEFT,
-        UP_LEFT
-    }
-
-    private ChessPosition[] getDirectedPositions(ChessPosition currentPosition, Direction targetDir, int maxDistance) {
-        ChessPosition[] positions = new ChessPosition[maxDistance];
-        switch (targetDir) {
-            case UP:
-                for (int i = 1; i <= maxDistance; i++) {
-                    if (currentPosition.getColumn() + i <= 8) {
-                        positions[i-1] = new ChessPosition( currentPosition.getRow(), currentPosition.getColumn() + i);
-                    } else {
-                        positions[i-1] = null;
-                    }
-                }
-                break;
-            case UP_RIGHT:
-                for (int i = 1; i <= maxDistance; i++) {
-                    if (currentPosition.getColumn() + i <= 8 && currentPosition.getRow() + i <= 8) {
-                        positions[i-1] = new ChessPosition(currentPosition.getRow() + i, currentPosition.getColumn() + i);
-                    } else {
-                        positions[i-1] = null;
-                    }
-                }
-                break;
-            case RIGHT:
-                for (int i = 1; i <= maxDistance; i++) {
-                    if (currentPosition.getRow() + i <= 8) {
-                        positions[i-1] = new ChessPosition(currentPosition.getRow() + i, currentPosition.getColumn());
-                    } else {
-                        positions[i-1] = null;
-                    }
-                }
-                break;
-            case DOWN_RIGHT:
-                for (int i = 1; i <= maxDistance; i++) {
-                    if (currentPosition.getColumn() - i >= 1 && currentPosition.getRow() + i <= 8) {
-                        positions[i-1] = new ChessPosition(currentPosition.getRow() + i, currentPosition.getColumn() - i);
-                    } else {
-                        positions[i-1] = null;
-                    }
-                }
-                break;
-            case DOWN:
-                for (int i = 1; i <= maxDistance; i++) {
-                    if (currentPosition.getColumn() - i >= 1) {
-                        positions[i-1] = new ChessPosition(currentPosition.getRow(), currentPosition.getColumn() - i);
-                    }
-                }
-                break;
-            case DOWN_LEFT:
-                for (int i = 1; i <= maxDistance; i++) {
-                    if (currentPosition.getColumn() - i >= 1 && currentPosition.getRow() - i >= 1) {
-                        positions[i-1] = new ChessPosition(currentPosition.getRow() - i, currentPosition.getColumn() - i);
-                    } else {
-                        positions[i-1] = null;
-                    }
-                }
-                break;
-            case LEFT:
-                for (int i = 1; i <= maxDistance; i++) {
-                    if (currentPosition.getRow() - i >= 1) {
-                        positions[i-1] = new ChessPosition(currentPosition.getRow() - i, currentPosition.getColumn());
-                    } else {
-                        positions[i-1] = null;
-                    }
-                }
-                break;
-            case UP_LEFT:
-                for (int i = 1; i <= maxDistance; i++) {
-                    if (currentPosition.getColumn() + i <= 8 && currentPosition.getRow() - i >= 1) {
-                        positions[i-1] = new ChessPosition(currentPosition.getRow() - i, currentPosition.getColumn() + i);
-                    } else {
-                        positions[i-1] = null;
-                    }
-                }
-                break;
-        }
-        return positions;
-    }
-
     @Override
     public boolean equals(Object o) {
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        } else if (this == o) {
+        if (this == o) {
             return true;
+        } else if (o == null || getClass() != o.getClass()) {
+            return false;
         }
         ChessPiece that = (ChessPiece) o;
         return color == that.color && type == that.type;
@@ -476,7 +236,7 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(color, type);
+        return ChessBoard.pieceIndex(color, type);
     }
 
     @Override
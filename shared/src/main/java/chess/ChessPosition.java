@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -13,11 +11,42 @@ public class ChessPosition {
     private final int row;
     private final int column;
 
+    // Canonical instance of every on-board position, indexed by square (a1 = 0)
+    private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+    static {
+        for (int square=0; square<64; square++) {
+            POSITIONS[square] = new ChessPosition(Bitboards.rowOf(square), Bitboards.columnOf(square));
+        }
+    }
+
     public ChessPosition(int row, int col) {
         this.row = row;
         this.column = col;
     }
 
+    /**
+     * Gets the shared instance of a position instead of allocating a new one
+     *
+     * @param row 1-indexed row, 1 being the bottom row
+     * @param col 1-indexed column, 1 being the left column
+     * @return The canonical position, or a new one if it is off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[Bitboards.squareOf(row, col)];
+    }
+
+    /**
+     * @param square square index (0-63, a1 = 0)
+     * @return The canonical position for the square
+     */
+    public static ChessPosition of(int square) {
+        return POSITIONS[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -36,10 +65,10 @@ public class ChessPosition {
 
     @Override
     public boolean equals(Object o) {
-        if (o == null || getClass() != o.getClass()) {
-            return false;
-        } else if (this == o) {
+        if (this == o) {
             return true;
+        } else if (o == null || getClass() != o.getClass()) {
+            return false;
         }
 
         ChessPosition that = (ChessPosition) o;
@@ -48,7 +77,7 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, column);
+        return 31 * row + column;
     }
 
     @Override
@@ -0,0 +1,188 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation, the standard text form used by
+ * perft suites, opening books and other engines.
+ */
+public final class Fen {
+
+    public static final String STARTING_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "kqbnrp";
+    // In GameState bit order: white kingside, white queenside, black kingside, black queenside
+    private static final String CASTLING_LETTERS = "KQkq";
+
+    private Fen() {
+    }
+
+    /**
+     * Creates a game from a FEN string
+     *
+     * @param fen the position; only the placement field is required, the side to move defaults to white,
+     *            castling rights are inferred from the placement, the halfmove clock defaults to 0 and
+     *            the fullmove number to 1
+     * @return A new game set up in the position
+     * @throws IllegalArgumentException if the FEN can't be read
+     */
+    public static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        ChessBoard board = parsePlacement(fields[0]);
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(fields.length > 1 ? parseTurn(fields[1]) : ChessGame.TeamColor.WHITE);
+        if (fields.length > 2) {
+            game.setCastlingAndEnPassant(parseCastling(fields[2]), fields.length > 3 ? parseSquare(fields[3]) : -1);
+        }
+        if (fields.length > 4) {
+            game.setHalfmoveClock(parseCount(fields[4]));
+        }
+        if (fields.length > 5) {
+            // Some writers number moves from 0; the first move is always number 1
+            game.setFullmoveNumber(Math.max(parseCount(fields[5]), 1));
+        }
+        return game;
+    }
+
+    /**
+     * Writes a game's position as a FEN string
+     *
+     * @param game the game to describe
+     * @return FEN of the current position
+     */
+    public static String toFen(ChessGame game) {
+        StringBuilder fen = new StringBuilder();
+        ChessBoard board = game.getBoard();
+
+        for (int row=8; row>=1; row--) {
+            int emptySquares = 0;
+            for (int col=1; col<=8; col++) {
+                ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
+                if (piece == null) {
+                    emptySquares++;
+                    continue;
+                }
+                if (emptySquares > 0) {
+                    fen.append(emptySquares);
+                    emptySquares = 0;
+                }
+                fen.append(pieceLetter(piece));
+            }
+            if (emptySquares > 0) {
+                fen.append(emptySquares);
+            }
+            if (row > 1) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w" : " b");
+        fen.append(' ').append(castlingText(game.getCastlingRights()));
+        fen.append(' ').append(game.getEnPassantSquare() < 0 ? "-" : squareText(game.getEnPassantSquare()));
+        fen.append(' ').append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+        return fen.toString();
+    }
+
+    private static ChessBoard parsePlacement(String placement) {
+        String[] rows = placement.split("/");
+        if (rows.length != 8) {
+            throw new IllegalArgumentException("FEN placement needs 8 rows: " + placement);
+        }
+
+        ChessBoard board = new ChessBoard();
+        for (int i=0; i<8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : rows[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    col += c - '0';
+                } else {
+                    if (col > 8) {
+                        throw new IllegalArgumentException("FEN row " + row + " is too long: " + placement);
+                    }
+                    board.addPiece(ChessPosition.of(row, col), parsePiece(c));
+                    col++;
+                }
+            }
+            if (col != 9) {
+                throw new IllegalArgumentException("FEN row " + row + " doesn't cover 8 columns: " + placement);
+            }
+        }
+        return board;
+    }
+
+    private static ChessPiece parsePiece(char letter) {
+        int typeIndex = PIECE_LETTERS.indexOf(Character.toLowerCase(letter));
+        if (typeIndex < 0) {
+            throw new IllegalArgumentException("Unknown FEN piece: " + letter);
+        }
+
+        ChessGame.TeamColor color = Character.isUpperCase(letter) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        return ChessPiece.of(color, ChessPiece.PieceType.values()[typeIndex]);
+    }
+
+    private static char pieceLetter(ChessPiece piece) {
+        char letter = PIECE_LETTERS.charAt(piece.getPieceType().ordinal());
+        return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(letter) : letter;
+    }
+
+    private static int parseCastling(String castling) {
+        if (castling.equals("-")) {
+            return 0;
+        }
+
+        int rights = 0;
+        for (char c : castling.toCharArray()) {
+            int index = CASTLING_LETTERS.indexOf(c);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown FEN castling right: " + c);
+            }
+            rights |= 1 << index;
+        }
+        return rights;
+    }
+
+    private static String castlingText(int rights) {
+        StringBuilder text = new StringBuilder();
+        for (int i=0; i<CASTLING_LETTERS.length(); i++) {
+            if ((rights & (1 << i)) != 0) {
+                text.append(CASTLING_LETTERS.charAt(i));
+            }
+        }
+        return text.isEmpty() ? "-" : text.toString();
+    }
+
+    private static int parseSquare(String square) {
+        if (square.equals("-")) {
+            return -1;
+        }
+        if (square.length() != 2 || square.charAt(0) < 'a' || square.charAt(0) > 'h'
+                || square.charAt(1) < '1' || square.charAt(1) > '8') {
+            throw new IllegalArgumentException("Invalid FEN square: " + square);
+        }
+        return Bitboards.squareOf(square.charAt(1) - '0', square.charAt(0) - 'a' + 1);
+    }
+
+    private static String squareText(int square) {
+        return "" + (char) ('a' + Bitboards.columnOf(square) - 1) + Bitboards.rowOf(square);
+    }
+
+    private static int parseCount(String count) {
+        try {
+            int value = Integer.parseInt(count);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("FEN move counter must be a non-negative number: " + count);
+    }
+
+    private static ChessGame.TeamColor parseTurn(String turn) {
+        return switch (turn) {
+            case "w" -> ChessGame.TeamColor.WHITE;
+            case "b" -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("FEN side to move must be w or b: " + turn);
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson form of a ChessGame: its fields as Gson would write them, except that of the position
+ * key history only the keys a repetition can still match are written, oldest first.
+ * <p>
+ * The history is a fixed ring buffer sized for the fifty-move rule, so written whole it would add
+ * over a kilobyte, mostly unused slots, to every stored game and game message. Histories written
+ * whole by earlier versions are still read.
+ */
+final class GameJsonAdapter implements TypeAdapterFactory {
+
+    private static final String KEY_HISTORY = "keyHistory";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != ChessGame.class) {
+            return null;
+        }
+
+        TypeAdapter<ChessGame> fields = gson.getDelegateAdapter(this, TypeToken.get(ChessGame.class));
+        TypeAdapter<JsonElement> elements = gson.getAdapter(JsonElement.class);
+        return (TypeAdapter<T>) new TypeAdapter<ChessGame>() {
+            @Override
+            public void write(JsonWriter out, ChessGame game) throws IOException {
+                JsonObject json = fields.toJsonTree(game).getAsJsonObject();
+                JsonArray keys = new JsonArray();
+                for (long key : game.getRepetitionKeys()) {
+                    keys.add(key);
+                }
+                json.add(KEY_HISTORY, keys);
+                elements.write(out, json);
+            }
+
+            @Override
+            public ChessGame read(JsonReader in) throws IOException {
+                JsonObject json = elements.read(in).getAsJsonObject();
+                JsonElement keyElements = json.remove(KEY_HISTORY);
+                ChessGame game = fields.fromJsonTree(json);
+
+                if (keyElements != null && keyElements.isJsonArray()) {
+                    JsonArray keyArray = keyElements.getAsJsonArray();
+                    long[] keys = new long[keyArray.size()];
+                    for (int i=0; i<keys.length; i++) {
+                        keys[i] = keyArray.get(i).getAsLong();
+                    }
+                    game.setRepetitionKeys(keys);
+                }
+                return game;
+            }
+        }.nullSafe();
+    }
+}
@@ -0,0 +1,49 @@
+package chess;
+
+/**
+ * The state of a game from the point of view of the team whose turn it is
+ */
+public enum GameOutcome {
+    /**
+     * The team to move has a legal move and is not in check
+     */
+    IN_PROGRESS,
+    /**
+     * The team to move is in check but can escape it
+     */
+    CHECK,
+    /**
+     * The team to move is in check and has no legal move; the other team has won
+     */
+    CHECKMATE,
+    /**
+     * The team to move is not in check but has no legal move; the game is drawn
+     */
+    STALEMATE,
+    /**
+     * Neither team has the material left to ever checkmate; the game is drawn
+     */
+    INSUFFICIENT_MATERIAL,
+    /**
+     * The same position has occurred three times with the same team to move; the game is drawn
+     */
+    THREEFOLD_REPETITION,
+    /**
+     * Fifty moves by each team have passed without a capture or pawn move; the game is drawn
+     */
+    FIFTY_MOVE_RULE;
+
+    /**
+     * @return True if no further moves can be played
+     */
+    public boolean isGameOver() {
+        return this != IN_PROGRESS && this != CHECK;
+    }
+
+    /**
+     * @return True if the game ended without a winner
+     */
+    public boolean isDraw() {
+        return isGameOver() && this != CHECKMATE;
+    }
+}
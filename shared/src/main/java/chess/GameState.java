@@ -0,0 +1,93 @@
+package chess;
+
+/**
+ * Packs the parts of a position that placement alone doesn't show into a single int: which
+ * castling moves are still allowed and where an en passant capture could land.
+ * <p>
+ * Layout: bits 0-3 castling rights (see the constants), bits 4-10 en passant target square
+ * + 1 (0 when no en passant capture is possible).
+ */
+final class GameState {
+
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+    static final int ALL_CASTLING = 15;
+
+    // Rights that survive a move touching each square; moving a king or rook, or capturing a rook, loses them
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        for (int square=0; square<64; square++) {
+            CASTLING_KEPT[square] = ALL_CASTLING;
+        }
+        CASTLING_KEPT[Bitboards.squareOf(1, 1)] &= ~WHITE_QUEENSIDE;
+        CASTLING_KEPT[Bitboards.squareOf(1, 8)] &= ~WHITE_KINGSIDE;
+        CASTLING_KEPT[Bitboards.squareOf(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_KEPT[Bitboards.squareOf(8, 1)] &= ~BLACK_QUEENSIDE;
+        CASTLING_KEPT[Bitboards.squareOf(8, 8)] &= ~BLACK_KINGSIDE;
+        CASTLING_KEPT[Bitboards.squareOf(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
+
+    private GameState() {
+    }
+
+    static int pack(int castlingRights, int enPassantSquare) {
+        return castlingRights | ((enPassantSquare + 1) << 4);
+    }
+
+    static int castlingRights(int state) {
+        return state & ALL_CASTLING;
+    }
+
+    /**
+     * @return the square an en passant capture would land on, or -1 if there is none
+     */
+    static int enPassantSquare(int state) {
+        return (state >>> 4) - 1;
+    }
+
+    /**
+     * @return the castling rights left after a move between two squares
+     */
+    static int castlingAfterMove(int castlingRights, int from, int to) {
+        return castlingRights & CASTLING_KEPT[from] & CASTLING_KEPT[to];
+    }
+
+    /**
+     * @param color the team whose castling moves to select
+     * @return the kingside and queenside rights of one team
+     */
+    static int castlingRightsOf(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ?
+            WHITE_KINGSIDE | WHITE_QUEENSIDE :
+            BLACK_KINGSIDE | BLACK_QUEENSIDE;
+    }
+
+    /**
+     * Infers castling rights from placement alone: a king and rook still on their starting
+     * squares are assumed never to have moved
+     *
+     * @param board the board to inspect
+     * @return Castling rights consistent with the board
+     */
+    static int inferCastlingRights(ChessBoard board) {
+        int rights = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int row = color == ChessGame.TeamColor.WHITE ? 1 : 8;
+            ChessPiece king = ChessPiece.of(color, ChessPiece.PieceType.KING);
+            ChessPiece rook = ChessPiece.of(color, ChessPiece.PieceType.ROOK);
+            if (!king.equals(board.getPiece(Bitboards.squareOf(row, 5)))) {
+                continue;
+            }
+            if (rook.equals(board.getPiece(Bitboards.squareOf(row, 8)))) {
+                rights |= color == ChessGame.TeamColor.WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+            }
+            if (rook.equals(board.getPiece(Bitboards.squareOf(row, 1)))) {
+                rights |= color == ChessGame.TeamColor.WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+            }
+        }
+        return rights;
+    }
+}
@@ -0,0 +1,466 @@
+package chess;
+
+import java.util.Collection;
+
+/**
+ * Generates strictly legal moves for one team on a board.
+ * <p>
+ * The king's checkers and the pinned pieces are found once per call. Every other move is
+ * then limited to the check-evasion mask and its piece's pin ray, so each generated move is
+ * legal by construction and nothing has to be made and tested for check afterwards.
+ * <p>
+ * Moves are produced as packed ints into a {@link MoveList}; the Collection overloads convert
+ * them to ChessMoves for callers at the API boundary.
+ * <p>
+ * Castling and en passant depend on the game's history, not just the board, so the public
+ * board-only overloads leave them out; ChessGame passes its {@link GameState} to include them.
+ */
+public final class MoveGenerator {
+
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {
+        ChessPiece.PieceType.QUEEN,
+        ChessPiece.PieceType.BISHOP,
+        ChessPiece.PieceType.KNIGHT,
+        ChessPiece.PieceType.ROOK
+    };
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds every legal move for a team to a collection
+     *
+     * @param board the board to generate moves on
+     * @param color the team to move
+     * @param moves collection the legal moves are added to
+     */
+    public static void generateLegalMoves(ChessBoard board, ChessGame.TeamColor color, Collection<ChessMove> moves) {
+        generateLegalMoves(board, color, ~0L, moves);
+    }
+
+    /**
+     * Adds the legal moves of a team's pieces on a set of squares to a collection
+     *
+     * @param board    the board to generate moves on
+     * @param color    the team to move
+     * @param fromMask mask of the squares whose pieces should be moved
+     * @param moves    collection the legal moves are added to
+     */
+    public static void generateLegalMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask,
+                                          Collection<ChessMove> moves) {
+        MoveList packedMoves = new MoveList();
+        generateLegalMoves(board, color, fromMask, packedMoves);
+        packedMoves.toChessMoves(moves);
+    }
+
+    /**
+     * Appends every legal move for a team to a move list
+     *
+     * @param board the board to generate moves on
+     * @param color the team to move
+     * @param moves list the packed legal moves are appended to
+     */
+    public static void generateLegalMoves(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        generateLegalMoves(board, color, ~0L, moves);
+    }
+
+    /**
+     * Appends the legal moves of a team's pieces on a set of squares to a move list
+     *
+     * @param board    the board to generate moves on
+     * @param color    the team to move
+     * @param fromMask mask of the squares whose pieces should be moved
+     * @param moves    list the packed legal moves are appended to
+     */
+    public static void generateLegalMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask,
+                                          MoveList moves) {
+        generateLegalMoves(board, color, fromMask, 0, moves);
+    }
+
+    /**
+     * Appends the legal moves of a team's pieces on a set of squares to a move list, including
+     * the castling and en passant moves allowed by a game state
+     *
+     * @param board    the board to generate moves on
+     * @param color    the team to move
+     * @param fromMask mask of the squares whose pieces should be moved
+     * @param state    packed castling rights and en passant square (see GameState)
+     * @param moves    list the packed legal moves are appended to
+     */
+    static void generateLegalMoves(ChessBoard board, ChessGame.TeamColor color, long fromMask, int state,
+                                   MoveList moves) {
+        ChessGame.TeamColor opponentColor = opponent(color);
+        long ours = board.getOccupancy(color);
+        long theirs = board.getOccupancy(opponentColor);
+        long occupancy = ours | theirs;
+        long kings = board.getPieces(color, ChessPiece.PieceType.KING);
+
+        // Pins and check evasion assume a single king; anything else falls back to testing each move
+        if (Bitboards.popCount(kings) > 1) {
+            generateByTrial(board, color, ours & fromMask, moves);
+            return;
+        }
+
+        long checkMask = ~0L;
+        long pinned = Bitboards.EMPTY;
+        int kingSquare = Bitboards.lsb(kings);
+
+        if (kings != 0) {
+            long checkers = board.attackersTo(kingSquare, opponentColor, occupancy);
+
+            if ((kings & fromMask) != 0) {
+                addKingMoves(board, color, kingSquare, ours, theirs, occupancy, moves);
+            }
+
+            // In double check only the king can move
+            if (Bitboards.popCount(checkers) > 1) {
+                return;
+            }
+
+            // In single check, other pieces must capture the checker or block between it and the king
+            if (checkers != 0) {
+                checkMask = checkers | SlidingAttacks.between(kingSquare, Bitboards.lsb(checkers));
+            } else if ((kings & fromMask) != 0) {
+                addCastlingMoves(board, color, kingSquare, occupancy, GameState.castlingRights(state), moves);
+            }
+
+            pinned = pinnedPieces(board, color, kingSquare, ours, occupancy);
+        }
+
+        long movers = ours & ~kings & fromMask;
+        while (movers != 0) {
+            int from = Bitboards.lsb(movers);
+            long allowed = (pinned & Bitboards.bit(from)) != 0 ?
+                checkMask & SlidingAttacks.line(kingSquare, from) :
+                checkMask;
+
+            switch (board.getPiece(from).getPieceType()) {
+                case PAWN -> addPawnMoves(color, from, theirs, occupancy, allowed, moves);
+                case KNIGHT -> addMoves(from, Bitboards.KNIGHT_ATTACKS[from] & ~ours & allowed, theirs, moves);
+                case BISHOP -> addMoves(from, SlidingAttacks.bishopAttacks(from, occupancy) & ~ours & allowed, theirs, moves);
+                case ROOK -> addMoves(from, SlidingAttacks.rookAttacks(from, occupancy) & ~ours & allowed, theirs, moves);
+                case QUEEN -> addMoves(from, SlidingAttacks.queenAttacks(from, occupancy) & ~ours & allowed, theirs, moves);
+                default -> {
+                }
+            }
+            movers = Bitboards.clearLsb(movers);
+        }
+
+        int enPassantSquare = GameState.enPassantSquare(state);
+        if (enPassantSquare >= 0) {
+            addEnPassantMoves(board, color, enPassantSquare, fromMask, moves);
+        }
+    }
+
+    /**
+     * Determines if a team has at least one legal move
+     *
+     * @param board the board to search
+     * @param color the team to move
+     * @return True if any of the team's pieces can legally move
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color) {
+        return hasLegalMove(board, color, 0);
+    }
+
+    // Same masks as generateLegalMoves, but returns at the first piece with any allowed target instead of listing moves
+    static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color, int state) {
+        ChessGame.TeamColor opponentColor = opponent(color);
+        long ours = board.getOccupancy(color);
+        long theirs = board.getOccupancy(opponentColor);
+        long occupancy = ours | theirs;
+        long kings = board.getPieces(color, ChessPiece.PieceType.KING);
+
+        if (Bitboards.popCount(kings) != 1) {
+            MoveList moves = new MoveList();
+            generateLegalMoves(board, color, ~0L, state, moves);
+            return !moves.isEmpty();
+        }
+
+        // Castling is never the only legal move: it needs the king's first step to be safe, which is a move itself
+        int kingSquare = Bitboards.lsb(kings);
+        long occupancyWithoutKing = occupancy & ~kings;
+        long kingTargets = Bitboards.KING_ATTACKS[kingSquare] & ~ours;
+        while (kingTargets != 0) {
+            if (board.attackersTo(Bitboards.lsb(kingTargets), opponentColor, occupancyWithoutKing) == 0) {
+                return true;
+            }
+            kingTargets = Bitboards.clearLsb(kingTargets);
+        }
+
+        long checkers = board.attackersTo(kingSquare, opponentColor, occupancy);
+        if (Bitboards.popCount(checkers) > 1) {
+            return false;
+        }
+        long checkMask = checkers == 0 ? ~0L : checkers | SlidingAttacks.between(kingSquare, Bitboards.lsb(checkers));
+        long pinned = pinnedPieces(board, color, kingSquare, ours, occupancy);
+
+        long movers = ours & ~kings;
+        while (movers != 0) {
+            int from = Bitboards.lsb(movers);
+            long allowed = (pinned & Bitboards.bit(from)) != 0 ?
+                checkMask & SlidingAttacks.line(kingSquare, from) :
+                checkMask;
+            long targets = switch (board.getPiece(from).getPieceType()) {
+                case PAWN -> pawnTargets(color, from, theirs, occupancy);
+                case KNIGHT -> Bitboards.KNIGHT_ATTACKS[from];
+                case BISHOP -> SlidingAttacks.bishopAttacks(from, occupancy);
+                case ROOK -> SlidingAttacks.rookAttacks(from, occupancy);
+                case QUEEN -> SlidingAttacks.queenAttacks(from, occupancy);
+                case KING -> Bitboards.EMPTY;
+            };
+            if ((targets & ~ours & allowed) != 0) {
+                return true;
+            }
+            movers = Bitboards.clearLsb(movers);
+        }
+
+        // En passant is rare and needs its discovered checks tested by making it, so only then is a list built
+        int enPassantSquare = GameState.enPassantSquare(state);
+        if (enPassantSquare >= 0) {
+            MoveList moves = new MoveList();
+            addEnPassantMoves(board, color, enPassantSquare, ~0L, moves);
+            return !moves.isEmpty();
+        }
+        return false;
+    }
+
+    /**
+     * Determines if a single move is legal without generating the piece's other moves: the
+     * move must be one the piece can make on this board, and must not leave its king attacked
+     *
+     * @param board     the board to test the move on; it is restored before returning
+     * @param color     the team making the move
+     * @param from      the square index the piece moves from
+     * @param to        the square index the piece moves to
+     * @param promotion the type to promote to, or null
+     * @param state     packed castling rights and en passant square (see GameState)
+     * @return True if the move is legal
+     */
+    static boolean isLegal(ChessBoard board, ChessGame.TeamColor color, int from, int to,
+                           ChessPiece.PieceType promotion, int state) {
+        ChessPiece piece = board.getPiece(from);
+        long toBit = Bitboards.bit(to);
+        if (piece == null || piece.getTeamColor() != color || (board.getOccupancy(color) & toBit) != 0) {
+            return false;
+        }
+
+        // Promotion is required exactly when a pawn reaches the last row
+        ChessPiece.PieceType type = piece.getPieceType();
+        boolean promotes = type == ChessPiece.PieceType.PAWN && (Bitboards.rowOf(to) == 8 || Bitboards.rowOf(to) == 1);
+        if (promotes != (promotion != null)
+                || promotion == ChessPiece.PieceType.KING || promotion == ChessPiece.PieceType.PAWN) {
+            return false;
+        }
+
+        long occupancy = board.getOccupancy();
+        long reachable = switch (type) {
+            case KING -> Bitboards.KING_ATTACKS[from];
+            case QUEEN -> SlidingAttacks.queenAttacks(from, occupancy);
+            case BISHOP -> SlidingAttacks.bishopAttacks(from, occupancy);
+            case KNIGHT -> Bitboards.KNIGHT_ATTACKS[from];
+            case ROOK -> SlidingAttacks.rookAttacks(from, occupancy);
+            case PAWN -> pawnTargets(color, from, board.getOccupancy(opponent(color)), occupancy);
+        };
+
+        // Castling and en passant depend on the game state; check those against the piece's generated moves
+        if ((reachable & toBit) == 0) {
+            if (!isCastlingOrEnPassant(type, from, to, state)) {
+                return false;
+            }
+            MoveList moves = new MoveList();
+            generateLegalMoves(board, color, Bitboards.bit(from), state, moves);
+            return moves.find(PackedMove.of(from, to)) != PackedMove.NONE;
+        }
+
+        long undo = board.makeMove(from, to, promotion);
+        boolean legal = !ChessGame.arbitraryBoardCheck(color, board);
+        board.unmakeMove(undo);
+        return legal;
+    }
+
+    private static boolean isCastlingOrEnPassant(ChessPiece.PieceType type, int from, int to, int state) {
+        return (type == ChessPiece.PieceType.KING && Math.abs(to - from) == 2)
+            || (type == ChessPiece.PieceType.PAWN && to == GameState.enPassantSquare(state));
+    }
+
+    // Squares a pawn can move to on this board, not counting en passant
+    private static long pawnTargets(ChessGame.TeamColor color, int from, long theirs, long occupancy) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        long targets = Bitboards.PAWN_ATTACKS[color.ordinal()][from] & theirs;
+        int singlePush = from + (white ? 8 : -8);
+        if (singlePush >= 0 && singlePush < 64 && (occupancy & Bitboards.bit(singlePush)) == 0) {
+            targets |= Bitboards.bit(singlePush);
+            int doublePush = singlePush + (white ? 8 : -8);
+            if (Bitboards.rowOf(from) == (white ? 2 : 7) && (occupancy & Bitboards.bit(doublePush)) == 0) {
+                targets |= Bitboards.bit(doublePush);
+            }
+        }
+        return targets;
+    }
+
+    // Pieces of our team that are the only blocker between our king and an enemy slider
+    private static long pinnedPieces(ChessBoard board, ChessGame.TeamColor color, int kingSquare, long ours,
+                                     long occupancy) {
+        ChessGame.TeamColor opponentColor = opponent(color);
+        long queens = board.getPieces(opponentColor, ChessPiece.PieceType.QUEEN);
+        long snipers = (SlidingAttacks.rookAttacks(kingSquare, 0L)
+                & (board.getPieces(opponentColor, ChessPiece.PieceType.ROOK) | queens))
+            | (SlidingAttacks.bishopAttacks(kingSquare, 0L)
+                & (board.getPieces(opponentColor, ChessPiece.PieceType.BISHOP) | queens));
+
+        long pinned = Bitboards.EMPTY;
+        while (snipers != 0) {
+            long blockers = SlidingAttacks.between(kingSquare, Bitboards.lsb(snipers)) & occupancy;
+            if (Bitboards.popCount(blockers) == 1) {
+                pinned |= blockers & ours;
+            }
+            snipers = Bitboards.clearLsb(snipers);
+        }
+        return pinned;
+    }
+
+    // The king may step anywhere not attacked once it has left its square (so it can't hide behind itself)
+    private static void addKingMoves(ChessBoard board, ChessGame.TeamColor color, int kingSquare, long ours,
+                                     long theirs, long occupancy, MoveList moves) {
+        ChessGame.TeamColor opponentColor = opponent(color);
+        long occupancyWithoutKing = occupancy & ~Bitboards.bit(kingSquare);
+        long targets = Bitboards.KING_ATTACKS[kingSquare] & ~ours;
+
+        while (targets != 0) {
+            int to = Bitboards.lsb(targets);
+            if (board.attackersTo(to, opponentColor, occupancyWithoutKing) == 0) {
+                moves.add(PackedMove.of(kingSquare, to, null, captureFlag(to, theirs)));
+            }
+            targets = Bitboards.clearLsb(targets);
+        }
+    }
+
+    // Called only when not in check: the rook must be home, the squares between empty, and the king's path safe
+    private static void addCastlingMoves(ChessBoard board, ChessGame.TeamColor color, int kingSquare,
+                                         long occupancy, int castlingRights, MoveList moves) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        if (kingSquare != Bitboards.squareOf(white ? 1 : 8, 5)) {
+            return;
+        }
+
+        if ((castlingRights & (white ? GameState.WHITE_KINGSIDE : GameState.BLACK_KINGSIDE)) != 0) {
+            addCastlingMove(board, color, kingSquare, kingSquare + 2, kingSquare + 3, occupancy, moves);
+        }
+        if ((castlingRights & (white ? GameState.WHITE_QUEENSIDE : GameState.BLACK_QUEENSIDE)) != 0) {
+            addCastlingMove(board, color, kingSquare, kingSquare - 2, kingSquare - 4, occupancy, moves);
+        }
+    }
+
+    private static void addCastlingMove(ChessBoard board, ChessGame.TeamColor color, int kingSquare, int kingTo,
+                                        int rookSquare, long occupancy, MoveList moves) {
+        ChessGame.TeamColor opponentColor = opponent(color);
+        if (!ChessPiece.of(color, ChessPiece.PieceType.ROOK).equals(board.getPiece(rookSquare))
+                || (SlidingAttacks.between(kingSquare, rookSquare) & occupancy) != 0
+                || board.attackersTo((kingSquare + kingTo) / 2, opponentColor, occupancy) != 0
+                || board.attackersTo(kingTo, opponentColor, occupancy) != 0) {
+            return;
+        }
+        moves.add(PackedMove.of(kingSquare, kingTo, null, PackedMove.CASTLE));
+    }
+
+    // Removing both pawns from one row can expose the king along it, so each capture is tested by making it
+    private static void addEnPassantMoves(ChessBoard board, ChessGame.TeamColor color, int target, long fromMask,
+                                          MoveList moves) {
+        int capturedSquare = target + (color == ChessGame.TeamColor.WHITE ? -8 : 8);
+        if (board.getPiece(target) != null
+                || !ChessPiece.of(opponent(color), ChessPiece.PieceType.PAWN).equals(board.getPiece(capturedSquare))) {
+            return;
+        }
+
+        long capturers = Bitboards.PAWN_ATTACKS[opponent(color).ordinal()][target]
+            & board.getPieces(color, ChessPiece.PieceType.PAWN) & fromMask;
+        while (capturers != 0) {
+            int from = Bitboards.lsb(capturers);
+            long undo = board.makeMove(from, target, null);
+            boolean legal = !ChessGame.arbitraryBoardCheck(color, board);
+            board.unmakeMove(undo);
+            if (legal) {
+                moves.add(PackedMove.of(from, target, null, PackedMove.CAPTURE | PackedMove.EN_PASSANT));
+            }
+            capturers = Bitboards.clearLsb(capturers);
+        }
+    }
+
+    private static void addPawnMoves(ChessGame.TeamColor color, int from, long theirs, long occupancy,
+                                     long allowed, MoveList moves) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int forward = white ? 8 : -8;
+        int startRow = white ? 2 : 7;
+        int singlePush = from + forward;
+
+        if (singlePush >= 0 && singlePush < 64 && (occupancy & Bitboards.bit(singlePush)) == 0) {
+            if ((allowed & Bitboards.bit(singlePush)) != 0) {
+                addPawnMove(from, singlePush, 0, moves);
+            }
+
+            int doublePush = singlePush + forward;
+            if (Bitboards.rowOf(from) == startRow && (occupancy & Bitboards.bit(doublePush)) == 0
+                    && (allowed & Bitboards.bit(doublePush)) != 0) {
+                moves.add(PackedMove.of(from, doublePush, null, PackedMove.DOUBLE_PUSH));
+            }
+        }
+
+        long captures = Bitboards.PAWN_ATTACKS[color.ordinal()][from] & theirs & allowed;
+        while (captures != 0) {
+            addPawnMove(from, Bitboards.lsb(captures), PackedMove.CAPTURE, moves);
+            captures = Bitboards.clearLsb(captures);
+        }
+    }
+
+    // A pawn reaching the last row adds one move per promotion type
+    private static void addPawnMove(int from, int to, int flags, MoveList moves) {
+        int toRow = Bitboards.rowOf(to);
+        if (toRow == 8 || toRow == 1) {
+            for (ChessPiece.PieceType promotionType : PROMOTION_TYPES) {
+                moves.add(PackedMove.of(from, to, promotionType, flags));
+            }
+        } else {
+            moves.add(PackedMove.of(from, to, null, flags));
+        }
+    }
+
+    private static void addMoves(int from, long targets, long theirs, MoveList moves) {
+        while (targets != 0) {
+            int to = Bitboards.lsb(targets);
+            moves.add(PackedMove.of(from, to, null, captureFlag(to, theirs)));
+            targets = Bitboards.clearLsb(targets);
+        }
+    }
+
+    private static int captureFlag(int to, long theirs) {
+        return (theirs & Bitboards.bit(to)) != 0 ? PackedMove.CAPTURE : 0;
+    }
+
+    // Make each pseudo-legal move and keep the ones that leave no king of the team attacked
+    private static void generateByTrial(ChessBoard board, ChessGame.TeamColor color, long movers,
+                                        MoveList moves) {
+        long theirs = board.getOccupancy(opponent(color));
+        while (movers != 0) {
+            int fromSquare = Bitboards.lsb(movers);
+            ChessPosition from = ChessPosition.of(fromSquare);
+            boolean pawn = board.getPiece(from).getPieceType() == ChessPiece.PieceType.PAWN;
+            for (ChessMove move : board.getPiece(from).pieceMoves(board, from)) {
+                int to = Bitboards.squareOf(move.getEndPosition());
+                int flags = captureFlag(to, theirs) | (pawn && Math.abs(to - fromSquare) == 16 ? PackedMove.DOUBLE_PUSH : 0);
+                int packedMove = PackedMove.of(fromSquare, to, move.getPromotionPiece(), flags);
+
+                long undo = board.makeMove(move);
+                if (!ChessGame.arbitraryBoardCheck(color, board)) {
+                    moves.add(packedMove);
+                }
+                board.unmakeMove(undo);
+            }
+            movers = Bitboards.clearLsb(movers);
+        }
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import java.util.Collection;
+
+/**
+ * A reusable list of packed moves backed by a plain int array.
+ * <p>
+ * Generators append to it and callers clear it between positions, so enumerating moves
+ * allocates nothing once the list exists.
+ */
+public final class MoveList {
+
+    // No legal chess position has more than 218 moves
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Finds a generated move by its squares and promotion, ignoring flags
+     *
+     * @param move packed move to look for
+     * @return The matching generated move (with its flags), or PackedMove.NONE if absent
+     */
+    public int find(int move) {
+        int target = PackedMove.withoutFlags(move);
+        for (int i=0; i<size; i++) {
+            if (PackedMove.withoutFlags(moves[i]) == target) {
+                return moves[i];
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    /**
+     * Converts every move in the list to a ChessMove
+     *
+     * @param out collection the converted moves are added to
+     */
+    public void toChessMoves(Collection<ChessMove> out) {
+        for (int i=0; i<size; i++) {
+            out.add(PackedMove.toChessMove(moves[i]));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package chess;
+
+/**
+ * Packs everything needed to take back a move into a single long, so make/unmake
+ * can run in the move-validation loop without allocating.
+ * <p>
+ * Layout: bits 0-5 start square, 6-11 end square, 12-15 moved piece index,
+ * 16-19 captured piece index + 1 (0 when nothing was captured), 20-21 special move kind.
+ * ChessGame adds its own state above the board's: bits 32-47 hold the halfmove clock and
+ * bits 48-58 the GameState word from before the move.
+ */
+final class MoveUndo {
+
+    static final int NORMAL = 0;
+    static final int CASTLE = 1;
+    static final int EN_PASSANT = 2;
+
+    private MoveUndo() {
+    }
+
+    static long pack(int from, int to, int movedPiece, int capturedPiece, int special) {
+        return from | (to << 6) | ((long) movedPiece << 12) | ((long) (capturedPiece + 1) << 16)
+            | ((long) special << 20);
+    }
+
+    static int from(long undo) {
+        return (int) (undo & 0x3F);
+    }
+
+    static int to(long undo) {
+        return (int) ((undo >>> 6) & 0x3F);
+    }
+
+    static int movedPiece(long undo) {
+        return (int) ((undo >>> 12) & 0xF);
+    }
+
+    /**
+     * @return the captured piece index, or -1 if the move was not a capture
+     */
+    static int capturedPiece(long undo) {
+        return (int) ((undo >>> 16) & 0xF) - 1;
+    }
+
+    /**
+     * @return NORMAL, CASTLE or EN_PASSANT
+     */
+    static int special(long undo) {
+        return (int) ((undo >>> 20) & 0x3);
+    }
+
+    /**
+     * @return True if the move can never be reversed: a pawn move or a capture
+     */
+    static boolean isIrreversible(long undo) {
+        return movedPiece(undo) % 6 == ChessPiece.PieceType.PAWN.ordinal() || capturedPiece(undo) >= 0;
+    }
+
+    static long withHalfmoveClock(long undo, int halfmoveClock) {
+        return undo | ((long) Math.min(halfmoveClock, 0xFFFF) << 32);
+    }
+
+    static int halfmoveClock(long undo) {
+        return (int) ((undo >>> 32) & 0xFFFF);
+    }
+
+    static long withGameState(long undo, int state) {
+        return undo | ((long) state << 48);
+    }
+
+    static int gameState(long undo) {
+        return (int) ((undo >>> 48) & 0x7FF);
+    }
+}
@@ -0,0 +1,121 @@
+package chess;
+
+/**
+ * Encodes a move as a single int so generators can produce moves without allocating.
+ * <p>
+ * Layout: bits 0-5 start square, 6-11 end square, 12-14 promotion type (PieceType ordinal + 1,
+ * or 0 for none), 15-18 flags. Squares are indexed as in {@link Bitboards}. The value 0 (a1 to
+ * a1) is never a real move and is used as {@link #NONE}.
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1;
+    public static final int DOUBLE_PUSH = 1 << 1;
+    public static final int EN_PASSANT = 1 << 2;
+    public static final int CASTLE = 1 << 3;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * @return Packed move between two squares with no promotion or flags
+     */
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    /**
+     * @param from      start square index
+     * @param to        end square index
+     * @param promotion type to promote to, or null
+     * @param flags     any of CAPTURE, DOUBLE_PUSH, EN_PASSANT and CASTLE
+     * @return Packed move
+     */
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionBits << 12) | (flags << 15);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return The promotion type, or null if the move is not a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionBits = (move >>> 12) & 0x7;
+        return promotionBits == 0 ? null : TYPES[promotionBits - 1];
+    }
+
+    public static int flags(int move) {
+        return (move >>> 15) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & (CAPTURE << 15)) != 0;
+    }
+
+    /**
+     * @return The move without its flags, which is what identifies it to a player
+     */
+    public static int withoutFlags(int move) {
+        return move & 0x7FFF;
+    }
+
+    /**
+     * Writes a move in long algebraic notation, e.g. e2e4 or a7a8q
+     *
+     * @param move packed move
+     * @return The move as text
+     */
+    public static String toLongAlgebraic(int move) {
+        StringBuilder text = new StringBuilder(5);
+        appendSquare(text, from(move));
+        appendSquare(text, to(move));
+        ChessPiece.PieceType promotion = promotion(move);
+        if (promotion != null) {
+            text.append(switch (promotion) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                default -> 'n';
+            });
+        }
+        return text.toString();
+    }
+
+    private static void appendSquare(StringBuilder text, int square) {
+        text.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+
+    /**
+     * Converts a packed move to the object form used by the public API and WebSocket protocol
+     *
+     * @param move packed move
+     * @return Equivalent ChessMove, using the canonical positions
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+
+    /**
+     * Packs a ChessMove. Flags aren't known from the move alone, so the result has none; compare
+     * it with {@link #withoutFlags} against generated moves.
+     *
+     * @param move move to pack; both positions must be on the board
+     * @return Packed move without flags
+     */
+    public static int fromChessMove(ChessMove move) {
+        return of(Bitboards.squareOf(move.getStartPosition()), Bitboards.squareOf(move.getEndPosition()),
+            move.getPromotionPiece(), 0);
+    }
+}
@@ -0,0 +1,187 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Multi-core perft on a {@link ForkJoinPool}.
+ * <p>
+ * Plies near the root are split into one task per move, each owning its own copy of the
+ * game, and work stealing keeps every core busy even though subtrees differ widely in size.
+ * Subtrees shallower than {@link #SPLIT_DEPTH} are counted on the thread that reaches them.
+ * An optional {@link PerftCache} shares subtree counts between workers, so transpositions
+ * are only counted once.
+ */
+public final class ParallelPerft {
+
+    /**
+     * Subtrees with fewer remaining plies than this are not split further
+     */
+    static final int SPLIT_DEPTH = 3;
+
+    private ParallelPerft() {
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves on the common pool, without caching
+     *
+     * @param game  the game to search; it is not modified
+     * @param depth number of plies to search
+     * @return Leaf node count
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game, depth, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves
+     *
+     * @param game  the game to search; it is not modified
+     * @param depth number of plies to search
+     * @param pool  the pool to run on
+     * @param cache table to share subtree counts through, or null to count every subtree
+     * @return Leaf node count
+     */
+    public static long perft(ChessGame game, int depth, ForkJoinPool pool, PerftCache cache) {
+        return pool.invoke(new PerftTask(new ChessGame(game), depth, cache));
+    }
+
+    /**
+     * Counts many positions at once, sharing the pool (and cache) between them
+     *
+     * @param games the games to search; they are not modified
+     * @param depth number of plies to search in each game
+     * @param pool  the pool to run on
+     * @param cache table to share subtree counts through, or null to count every subtree
+     * @return Leaf node count of each game, in the order given
+     */
+    public static long[] perft(List<ChessGame> games, int depth, ForkJoinPool pool, PerftCache cache) {
+        List<PerftTask> tasks = new ArrayList<>(games.size());
+        for (ChessGame game : games) {
+            tasks.add(new PerftTask(new ChessGame(game), depth, cache));
+        }
+        for (PerftTask task : tasks) {
+            pool.execute(task);
+        }
+
+        long[] counts = new long[tasks.size()];
+        for (int i=0; i<counts.length; i++) {
+            counts[i] = tasks.get(i).join();
+        }
+        return counts;
+    }
+
+    // ForkJoinTask is Serializable, but tasks only ever live inside one pool and are never serialized
+    @SuppressWarnings("serial")
+    private static final class PerftTask extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int depth;
+        private final PerftCache cache;
+
+        PerftTask(ChessGame game, int depth, PerftCache cache) {
+            this.game = game;
+            this.depth = depth;
+            this.cache = cache;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth < SPLIT_DEPTH) {
+                return count(game, depth, cache, moveLists(depth), 0);
+            }
+
+            long key = game.getPositionKey();
+            if (cache != null) {
+                long cached = cache.probe(key, depth);
+                if (cached >= 0) {
+                    return cached;
+                }
+            }
+
+            MoveList moves = new MoveList();
+            game.generateLegalMoves(moves);
+            List<PerftTask> children = new ArrayList<>(moves.size());
+            for (int i=0; i<moves.size(); i++) {
+                ChessGame child = new ChessGame(game);
+                child.makeMoveUnchecked(moves.get(i));
+                children.add(new PerftTask(child, depth - 1, cache));
+            }
+
+            long nodes = 0;
+            for (PerftTask child : invokeAll(children)) {
+                nodes += child.join();
+            }
+            if (cache != null) {
+                cache.store(key, depth, nodes);
+            }
+            return nodes;
+        }
+    }
+
+    // Single-threaded count of a subtree below the split depth, consulting the cache if there is one
+    private static long count(ChessGame game, int depth, PerftCache cache, MoveList[] lists, int ply) {
+        if (depth <= 0) {
+            return 1;
+        }
+
+        // Depth 1 is cheaper to generate than to look up
+        long key = game.getPositionKey();
+        if (cache != null && depth > 1) {
+            long cached = cache.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        MoveList moves = lists[ply];
+        moves.clear();
+        game.generateLegalMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i=0; i<moves.size(); i++) {
+            long undo = game.makeMoveUnchecked(moves.get(i));
+            nodes += count(game, depth - 1, cache, lists, ply + 1);
+            game.unmakeMove(undo);
+        }
+        if (cache != null) {
+            cache.store(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: ParallelPerft <depth> [fen]");
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        String fen = args.length > 1 ?
+            String.join(" ", Arrays.copyOfRange(args, 1, args.length)) :
+            Fen.STARTING_POSITION;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        long start = System.nanoTime();
+        long nodes = perft(Fen.parse(fen), depth, pool, new PerftCache(256));
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("Threads: " + pool.getParallelism());
+        System.out.println("Nodes: " + nodes);
+        System.out.printf("Time: %.3f s%n", elapsed / 1e9);
+        System.out.printf("Speed: %.0f nodes/s%n", nodes / Math.max(elapsed / 1e9, 1e-9));
+    }
+
+    private static MoveList[] moveLists(int depth) {
+        MoveList[] lists = new MoveList[Math.max(depth, 1)];
+        for (int i=0; i<lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+}
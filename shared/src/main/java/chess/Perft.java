@@ -0,0 +1,119 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft").
+ * <p>
+ * Matching published node counts for reference positions is the standard proof that move
+ * generation is correct, and nodes per second is the standard measure of its speed. Run it
+ * from the command line with
+ * <pre>
+ *   java -cp shared/target/classes chess.Perft &lt;depth&gt; [fen]
+ * </pre>
+ * to print a per-move breakdown ("divide") of the starting position or the given FEN.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves
+     *
+     * @param game  the game to search; it is restored before returning
+     * @param depth number of plies to search
+     * @return Leaf node count
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return perft(game, depth, moveLists(depth));
+    }
+
+    /**
+     * Counts the leaf nodes under each legal move of the current position
+     *
+     * @param game  the game to search; it is restored before returning
+     * @param depth number of plies to search, including the root move
+     * @return Leaf node count per root move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        MoveList[] lists = moveLists(Math.max(depth, 1));
+        MoveList rootMoves = lists[0];
+        game.generateLegalMoves(rootMoves);
+
+        for (int i=0; i<rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            long undo = game.makeMoveUnchecked(move);
+            counts.put(PackedMove.toChessMove(move), depth <= 1 ? 1 : perft(game, depth - 1, lists, 1));
+            game.unmakeMove(undo);
+        }
+        return counts;
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        return perft(game, depth, lists, 0);
+    }
+
+    // One preallocated move list per ply keeps the recursion allocation-free
+    private static long perft(ChessGame game, int depth, MoveList[] lists, int ply) {
+        MoveList moves = lists[ply];
+        moves.clear();
+        game.generateLegalMoves(moves);
+
+        // Every generated move is legal, so the last ply can be counted without making the moves
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i=0; i<moves.size(); i++) {
+            long undo = game.makeMoveUnchecked(moves.get(i));
+            nodes += perft(game, depth - 1, lists, ply + 1);
+            game.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    private static MoveList[] moveLists(int depth) {
+        MoveList[] lists = new MoveList[depth];
+        for (int i=0; i<depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: Perft <depth> [fen]");
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        String fen = args.length > 1 ?
+            String.join(" ", Arrays.copyOfRange(args, 1, args.length)) :
+            Fen.STARTING_POSITION;
+        ChessGame game = Fen.parse(fen);
+
+        long start = System.nanoTime();
+        Map<ChessMove, Long> counts = divide(game, depth);
+        long elapsed = System.nanoTime() - start;
+
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> entry : counts.entrySet()) {
+            System.out.println(PackedMove.toLongAlgebraic(PackedMove.fromChessMove(entry.getKey())) + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+
+        System.out.println();
+        System.out.println("Moves: " + counts.size());
+        System.out.println("Nodes: " + total);
+        System.out.printf("Time: %.3f s%n", elapsed / 1e9);
+        System.out.printf("Speed: %.0f nodes/s%n", total / Math.max(elapsed / 1e9, 1e-9));
+    }
+}
@@ -0,0 +1,53 @@
+package chess;
+
+/**
+ * Fixed-size table of perft subtree counts, keyed by position key and depth.
+ * <p>
+ * Entries are two longs, the key XOR the data followed by the data, written without locks.
+ * If two threads interleave writes to the same slot, the pair no longer XORs back to a
+ * probing key and the entry simply misses, so the table can be shared by every worker of a
+ * parallel perft. Colliding positions overwrite each other.
+ */
+public final class PerftCache {
+
+    private static final int DEPTH_BITS = 8;
+
+    private final long[] entries;
+    private final int slotMask;
+
+    /**
+     * @param sizeMb approximate table size in megabytes, rounded down to a power of two entries
+     */
+    public PerftCache(int sizeMb) {
+        long slots = Math.max(1L, ((long) sizeMb << 20) / 16);
+        int slotCount = (int) Math.min(Long.highestOneBit(slots), 1 << 29);
+        entries = new long[slotCount * 2];
+        slotMask = slotCount - 1;
+    }
+
+    /**
+     * @param key   position key of the subtree root
+     * @param depth remaining depth of the subtree
+     * @return The stored node count, or -1 if the subtree isn't cached
+     */
+    long probe(long key, int depth) {
+        int slot = ((int) key & slotMask) << 1;
+        long data = entries[slot + 1];
+        if ((entries[slot] ^ data) != key || (data & ((1 << DEPTH_BITS) - 1)) != depth) {
+            return -1;
+        }
+        return data >>> DEPTH_BITS;
+    }
+
+    /**
+     * @param key   position key of the subtree root
+     * @param depth remaining depth of the subtree
+     * @param nodes leaf node count of the subtree
+     */
+    void store(long key, int depth, long nodes) {
+        int slot = ((int) key & slotMask) << 1;
+        long data = (nodes << DEPTH_BITS) | depth;
+        entries[slot] = key ^ data;
+        entries[slot + 1] = data;
+    }
+}
@@ -0,0 +1,184 @@
+package chess;
+
+/**
+ * Material and piece-square scores for each piece kind on each square, for evaluation.
+ * <p>
+ * Every entry holds a middlegame and an endgame score packed into one int, white's scores
+ * positive and black's negative, so a board keeps the sum for all its pieces up to date
+ * with one addition per piece placed or removed. Each piece kind also carries a phase
+ * weight; the board's phase total runs from {@link #MAX_PHASE} with all the minor and major
+ * pieces on the board down to 0 with only kings and pawns left, and evaluation blends the
+ * two scores by it.
+ * <p>
+ * Tables are written from white's side with rank 8 on the first line, as they'd be drawn, so
+ * a white piece on square s reads entry s ^ 56 and a black piece reads entry s.
+ */
+public final class PieceSquareTables {
+
+    /**
+     * Phase total of the starting material; promotions can push a board's phase above it
+     */
+    public static final int MAX_PHASE = 24;
+
+    // Indexed by PieceType ordinal: king, queen, bishop, knight, rook, pawn
+    private static final int[] MIDDLEGAME_VALUES = {0, 900, 330, 320, 500, 100};
+    private static final int[] ENDGAME_VALUES = {0, 950, 340, 300, 540, 120};
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+    private static final int[] KING_MIDDLEGAME = {
+        // Stay behind the pawns
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+         20,  20,   0,   0,   0,   0,  20,  20,
+         20,  30,  10,   0,   0,  10,  30,  20
+    };
+
+    private static final int[] KING_ENDGAME = {
+        // Come to the centre once there's little left to attack it
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10,   0,   0, -10, -20, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  30,  40,  40,  30, -10, -30,
+        -30, -10,  20,  30,  30,  20, -10, -30,
+        -30, -30,   0,   0,   0,   0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    private static final int[] QUEEN = {
+        -20, -10, -10,  -5,  -5, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,   5,   5,   5,   0, -10,
+         -5,   0,   5,   5,   5,   5,   0,  -5,
+          0,   0,   5,   5,   5,   5,   0,  -5,
+        -10,   5,   5,   5,   5,   5,   0, -10,
+        -10,   0,   5,   0,   0,   0,   0, -10,
+        -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+
+    private static final int[] BISHOP = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10,   0,   0,   0,   0,   0,   0, -10,
+        -10,   0,   5,  10,  10,   5,   0, -10,
+        -10,   5,   5,  10,  10,   5,   5, -10,
+        -10,   0,  10,  10,  10,  10,   0, -10,
+        -10,  10,  10,  10,  10,  10,  10, -10,
+        -10,   5,   0,   0,   0,   0,   5, -10,
+        -20, -10, -10, -10, -10, -10, -10, -20
+    };
+
+    private static final int[] KNIGHT = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20,   0,   0,   0,   0, -20, -40,
+        -30,   0,  10,  15,  15,  10,   0, -30,
+        -30,   5,  15,  20,  20,  15,   5, -30,
+        -30,   0,  15,  20,  20,  15,   0, -30,
+        -30,   5,  10,  15,  15,  10,   5, -30,
+        -40, -20,   0,   5,   5,   0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50
+    };
+
+    private static final int[] ROOK = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+          5,  10,  10,  10,  10,  10,  10,   5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+         -5,   0,   0,   0,   0,   0,   0,  -5,
+          0,   0,   0,   5,   5,   0,   0,   0
+    };
+
+    private static final int[] PAWN_MIDDLEGAME = {
+          0,   0,   0,   0,   0,   0,   0,   0,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         10,  10,  20,  30,  30,  20,  10,  10,
+          5,   5,  10,  25,  25,  10,   5,   5,
+          0,   0,   0,  20,  20,   0,   0,   0,
+          5,  -5, -10,   0,   0, -10,  -5,   5,
+          5,  10,  10, -20, -20,  10,  10,   5,
+          0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[] PAWN_ENDGAME = {
+        // Passed or not, every step towards promotion counts
+          0,   0,   0,   0,   0,   0,   0,   0,
+         80,  80,  80,  80,  80,  80,  80,  80,
+         50,  50,  50,  50,  50,  50,  50,  50,
+         30,  30,  30,  30,  30,  30,  30,  30,
+         15,  15,  15,  15,  15,  15,  15,  15,
+          5,   5,   5,   5,   5,   5,   5,   5,
+          0,   0,   0,   0,   0,   0,   0,   0,
+          0,   0,   0,   0,   0,   0,   0,   0
+    };
+
+    private static final int[][] MIDDLEGAME_TABLES = {KING_MIDDLEGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDDLEGAME};
+    private static final int[][] ENDGAME_TABLES = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+
+    private static final int[][] SCORES = new int[12][64];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            boolean white = color == ChessGame.TeamColor.WHITE;
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int t = type.ordinal();
+                int[] scores = SCORES[ChessBoard.pieceIndex(color, type)];
+                for (int square=0; square<64; square++) {
+                    int entry = white ? square ^ 56 : square;
+                    int score = pack(MIDDLEGAME_VALUES[t] + MIDDLEGAME_TABLES[t][entry],
+                        ENDGAME_VALUES[t] + ENDGAME_TABLES[t][entry]);
+                    scores[square] = white ? score : -score;
+                }
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @return Packed score of a piece (by bitboard slot) standing on a square, negative for black
+     */
+    static int score(int pieceIndex, int square) {
+        return SCORES[pieceIndex][square];
+    }
+
+    /**
+     * @return Phase weight of a piece (by bitboard slot)
+     */
+    static int phaseWeight(int pieceIndex) {
+        return PHASE_WEIGHTS[pieceIndex % 6];
+    }
+
+    /**
+     * Packs a middlegame and an endgame score into one int; packed scores add and subtract
+     * as pairs, as long as each half stays within a short
+     *
+     * @param middlegame score with most pieces on the board
+     * @param endgame    score with only kings and pawns left
+     * @return The packed score
+     */
+    public static int pack(int middlegame, int endgame) {
+        return (endgame << 16) + middlegame;
+    }
+
+    /**
+     * @param score a packed score
+     * @return Its middlegame half
+     */
+    public static int middlegame(int score) {
+        return (short) score;
+    }
+
+    /**
+     * @param score a packed score
+     * @return Its endgame half
+     */
+    public static int endgame(int score) {
+        return (short) ((score + 0x8000) >> 16);
+    }
+}
@@ -0,0 +1,190 @@
+package chess;
+
+/**
+ * Magic-bitboard attack tables for rooks, bishops and queens.
+ * <p>
+ * Each square's relevant blockers are hashed by a multiply-shift into a precomputed
+ * table of attack masks, so a slider's full attack set costs one lookup regardless of
+ * how many squares it can reach. The magic multipliers are found once at class load
+ * from a fixed seed, so every JVM builds identical tables.
+ */
+public final class SlidingAttacks {
+
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, -1}, {-1, 1}};
+
+    private static final Magic[] ROOK_MAGICS = new Magic[64];
+    private static final Magic[] BISHOP_MAGICS = new Magic[64];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static long seed = 0x2545F4914F6CDD1DL;
+
+    static {
+        for (int square=0; square<64; square++) {
+            ROOK_MAGICS[square] = findMagic(square, ROOK_DIRECTIONS);
+            BISHOP_MAGICS[square] = findMagic(square, BISHOP_DIRECTIONS);
+        }
+
+        for (int from=0; from<64; from++) {
+            for (int to=0; to<64; to++) {
+                if (from == to) {
+                    continue;
+                }
+                long ends = Bitboards.bit(from) | Bitboards.bit(to);
+                if ((rookAttacks(from, 0L) & Bitboards.bit(to)) != 0) {
+                    BETWEEN[from][to] = rookAttacks(from, Bitboards.bit(to)) & rookAttacks(to, Bitboards.bit(from));
+                    LINE[from][to] = (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | ends;
+                } else if ((bishopAttacks(from, 0L) & Bitboards.bit(to)) != 0) {
+                    BETWEEN[from][to] = bishopAttacks(from, Bitboards.bit(to)) & bishopAttacks(to, Bitboards.bit(from));
+                    LINE[from][to] = (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    private SlidingAttacks() {
+    }
+
+    // Relevant-blocker mask, multiplier, shift and attack table for one square
+    private record Magic(long mask, long multiplier, int shift, long[] attacks) {
+        long lookup(long occupancy) {
+            return attacks[(int) (((occupancy & mask) * multiplier) >>> shift)];
+        }
+    }
+
+    /**
+     * @param square    the square index of the rook
+     * @param occupancy mask of every occupied square
+     * @return Mask of every square the rook attacks, including the first blocker on each ray
+     */
+    public static long rookAttacks(int square, long occupancy) {
+        return ROOK_MAGICS[square].lookup(occupancy);
+    }
+
+    /**
+     * @param square    the square index of the bishop
+     * @param occupancy mask of every occupied square
+     * @return Mask of every square the bishop attacks, including the first blocker on each ray
+     */
+    public static long bishopAttacks(int square, long occupancy) {
+        return BISHOP_MAGICS[square].lookup(occupancy);
+    }
+
+    /**
+     * @param square    the square index of the queen
+     * @param occupancy mask of every occupied square
+     * @return Mask of every square the queen attacks, including the first blocker on each ray
+     */
+    public static long queenAttacks(int square, long occupancy) {
+        return rookAttacks(square, occupancy) | bishopAttacks(square, occupancy);
+    }
+
+    /**
+     * @return Mask of the squares strictly between two squares on a shared rank, file or diagonal,
+     * or an empty mask if they don't share one
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return Mask of the full rank, file or diagonal through two squares, or an empty mask if
+     * they don't share one
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    // Search for a multiplier that maps every blocker subset of a square to a non-conflicting slot
+    private static Magic findMagic(int square, int[][] directions) {
+        long mask = relevantBlockers(square, directions);
+        int bits = Bitboards.popCount(mask);
+        int subsetCount = 1 << bits;
+
+        long[] blockers = new long[subsetCount];
+        long[] attacks = new long[subsetCount];
+        long subset = 0;
+        for (int i=0; i<subsetCount; i++) {
+            blockers[i] = subset;
+            attacks[i] = slowAttacks(square, subset, directions);
+            subset = (subset - mask) & mask; // Carry-Rippler step to the next subset of mask
+        }
+
+        long[] table = new long[subsetCount];
+        int[] usedBy = new int[subsetCount];
+        int shift = 64 - bits;
+        for (int attempt=1; ; attempt++) {
+            long multiplier = sparseRandom();
+            if (Bitboards.popCount((mask * multiplier) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+
+            boolean collision = false;
+            for (int i=0; i<subsetCount && !collision; i++) {
+                int index = (int) ((blockers[i] * multiplier) >>> shift);
+                if (usedBy[index] != attempt) {
+                    usedBy[index] = attempt;
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    collision = true;
+                }
+            }
+
+            if (!collision) {
+                return new Magic(mask, multiplier, shift, table);
+            }
+        }
+    }
+
+    // Squares whose occupancy can change a slider's attacks; the last square of each ray never can
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = Bitboards.EMPTY;
+        for (int[] direction : directions) {
+            int row = Bitboards.rowOf(square) + direction[0];
+            int col = Bitboards.columnOf(square) + direction[1];
+            while (onBoard(row + direction[0], col + direction[1])) {
+                mask |= Bitboards.bit(Bitboards.squareOf(row, col));
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    // Walk each ray until it leaves the board or hits a blocker; only used to fill the tables
+    private static long slowAttacks(int square, long occupancy, int[][] directions) {
+        long attacks = Bitboards.EMPTY;
+        for (int[] direction : directions) {
+            int row = Bitboards.rowOf(square) + direction[0];
+            int col = Bitboards.columnOf(square) + direction[1];
+            while (onBoard(row, col)) {
+                long squareBit = Bitboards.bit(Bitboards.squareOf(row, col));
+                attacks |= squareBit;
+                if ((occupancy & squareBit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    // Candidates with few set bits are far more likely to be valid magics
+    private static long sparseRandom() {
+        return nextRandom() & nextRandom() & nextRandom();
+    }
+
+    private static long nextRandom() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+}
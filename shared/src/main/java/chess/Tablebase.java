@@ -0,0 +1,168 @@
+package chess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Perfect play for small endgames, read from tables built by {@link TablebaseGenerator}.
+ * <p>
+ * Each table file is mapped read-only and holds one code per position, packed into as few
+ * bits as its longest mate needs: 0 for a draw, or one more than the number of plies to mate
+ * with best play, which is odd when the side to move wins and even when it loses. A probe is
+ * a signature match and one bit-field read, so the search can ask at any node and outcome
+ * logic can tell a won ending from a dead draw. Tables ignore the fifty-move rule and have
+ * no castling or en passant, so positions with either right are not answered.
+ */
+public final class Tablebase implements Closeable {
+
+    /**
+     * Most pieces, kings included, a table can hold
+     */
+    public static final int MAX_PIECES = 4;
+
+    static final int MAGIC = 0x54424C31;
+    static final int HEADER_BYTES = 8;
+    static final String EXTENSION = ".tbl";
+
+    private final List<FileChannel> channels;
+    private final Table[] tables;
+
+    /**
+     * The value of a position with perfect play
+     *
+     * @param wdl         1 if the side to move wins, 0 if it's a draw, -1 if it loses
+     * @param pliesToMate plies until checkmate, or 0 for a draw
+     */
+    public record Result(int wdl, int pliesToMate) {
+
+        public boolean isWin() {
+            return wdl > 0;
+        }
+
+        public boolean isDraw() {
+            return wdl == 0;
+        }
+
+        public boolean isLoss() {
+            return wdl < 0;
+        }
+    }
+
+    private record Table(TablebaseMaterial material, MappedByteBuffer data, int bits) {
+        int code(int index) {
+            long bit = (long) index * bits;
+            int word = (int) (bit >>> 6);
+            int offset = (int) (bit & 63);
+            long value = data.getLong(HEADER_BYTES + word * 8) >>> offset;
+            if (offset + bits > 64) {
+                value |= data.getLong(HEADER_BYTES + (word + 1) * 8) << (64 - offset);
+            }
+            return (int) (value & ((1L << bits) - 1));
+        }
+    }
+
+    private Tablebase(List<FileChannel> channels, Table[] tables) {
+        this.channels = channels;
+        this.tables = tables;
+    }
+
+    /**
+     * Maps every table file in a directory
+     *
+     * @param directory directory holding .tbl files named after their material, e.g. KQvK.tbl
+     * @return The open tablebase; close it once it's no longer needed
+     * @throws IOException if a table can't be read
+     */
+    public static Tablebase open(Path directory) throws IOException {
+        List<FileChannel> channels = new ArrayList<>();
+        List<Table> tables = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                TablebaseMaterial material = TablebaseMaterial.parse(name.substring(0, name.length() - EXTENSION.length()));
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                channels.add(channel);
+
+                MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                int bits = data.getInt(4);
+                long expectedBytes = HEADER_BYTES + ((long) material.size() * bits + 63) / 64 * 8;
+                if (data.getInt(0) != MAGIC || bits < 1 || bits > 8 || channel.size() != expectedBytes) {
+                    throw new IOException("Not a tablebase file: " + file);
+                }
+                tables.add(new Table(material, data, bits));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+            throw e instanceof IOException io ? io : new IOException(e.getMessage(), e);
+        }
+        return new Tablebase(channels, tables.toArray(new Table[0]));
+    }
+
+    /**
+     * @return Names of the tables available, e.g. KRvK
+     */
+    public List<String> getMaterials() {
+        List<String> names = new ArrayList<>();
+        for (Table table : tables) {
+            names.add(table.material().name());
+        }
+        return names;
+    }
+
+    /**
+     * Looks up a game's position
+     *
+     * @param game the game to look up
+     * @return The position's value for the team to move, or null if no table covers it
+     */
+    public Result probe(ChessGame game) {
+        if (game.getCastlingRights() != 0 || game.getEnPassantSquare() >= 0) {
+            return null;
+        }
+
+        int code = probeCode(game.getBoard(), game.getTeamTurn());
+        if (code < 0) {
+            return null;
+        } else if (code == 0) {
+            return new Result(0, 0);
+        }
+        int plies = code - 1;
+        return new Result((plies & 1) == 1 ? 1 : -1, plies);
+    }
+
+    /**
+     * @return The table code of a position (see the class comment), or -1 if no table covers it
+     */
+    int probeCode(ChessBoard board, ChessGame.TeamColor toMove) {
+        if (Bitboards.popCount(board.getOccupancy()) > MAX_PIECES) {
+            return -1;
+        }
+
+        long signature = board.getMaterialSignature();
+        for (Table table : tables) {
+            if (table.material().signature() == signature) {
+                return table.code(table.material().index(board, toMove, false));
+            } else if (table.material().flippedSignature() == signature) {
+                return table.code(table.material().index(board, toMove, true));
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (FileChannel channel : channels) {
+            channel.close();
+        }
+    }
+}
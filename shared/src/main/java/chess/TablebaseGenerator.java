@@ -0,0 +1,421 @@
+package chess;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds {@link Tablebase} files by retrograde analysis.
+ * <p>
+ * Every position of a table is first examined once by its legal moves: checkmates are lost in
+ * 0, stalemates are drawn, and captures and promotions that leave the table are looked up in
+ * the smaller tables, which must already exist. Then, one ply of distance at a time, the
+ * positions decided at that distance are walked backwards with un-moves: a position that can
+ * move into a loss is a win one ply further, and a position whose every move leads into a
+ * win for the opponent is a loss one ply past the longest of them. Whatever is never decided
+ * is a draw. Each pass is split into chunks of the index range across a {@link ForkJoinPool};
+ * threads only ever write the same value to a position, so they share the table without locks.
+ */
+public final class TablebaseGenerator {
+
+    /**
+     * Tables built when none are named, smallest first so each finds the ones it depends on
+     */
+    public static final List<String> DEFAULT_MATERIALS = List.of(
+        "KQvK", "KRvK", "KPvK", "KQvKQ", "KQvKR", "KRvKB", "KRvKN", "KBBvK", "KBNvK"
+    );
+
+    private static final int CHUNKS = 256;
+    // Codes are kept in bytes while generating
+    private static final int MAX_CODE = 255;
+    // Scores for picking the best of several moves: wins by shortest, losses by longest
+    private static final int WIN = 1000;
+
+    private final TablebaseMaterial material;
+    private final Tablebase smallerTables;
+    private final byte[] codes;
+    private final AtomicInteger highestCode = new AtomicInteger();
+
+    private TablebaseGenerator(TablebaseMaterial material, Tablebase smallerTables) {
+        this.material = material;
+        this.smallerTables = smallerTables;
+        this.codes = new byte[material.size()];
+    }
+
+    /**
+     * Builds one table and writes it to a directory, using the tables already there for the
+     * positions its captures and promotions lead to
+     *
+     * @param name      the table to build, e.g. KRvK
+     * @param directory where tables are read from and the new one is written to
+     * @param pool      the pool to run on
+     * @return Longest forced mate with white to move, in plies
+     * @throws IOException if the smaller tables can't be read or the table can't be written
+     * @throws IllegalStateException if a smaller table it depends on is missing
+     */
+    public static int generate(String name, Path directory, ForkJoinPool pool) throws IOException {
+        TablebaseMaterial material = TablebaseMaterial.parse(name);
+        Files.createDirectories(directory);
+        try (Tablebase smallerTables = Tablebase.open(directory)) {
+            TablebaseGenerator generator = new TablebaseGenerator(material, smallerTables);
+            generator.solve(pool);
+            generator.write(directory.resolve(name + Tablebase.EXTENSION));
+            return generator.longestWhiteWin();
+        }
+    }
+
+    private void solve(ForkJoinPool pool) {
+        runChunks(pool, (worker, index) -> worker.initialize(index));
+        for (int distance=0; distance + 1<=highestCode.get(); distance++) {
+            int code = distance + 1;
+            runChunks(pool, (worker, index) -> {
+                if ((codes[index] & 0xFF) == code) {
+                    worker.retreat(index, code);
+                }
+            });
+        }
+    }
+
+    private interface PositionTask {
+        void run(Worker worker, int index);
+    }
+
+    // Run a task on every index, each chunk of the range on its own worker
+    private void runChunks(ForkJoinPool pool, PositionTask task) {
+        int chunkSize = (codes.length + CHUNKS - 1) / CHUNKS;
+        List<Callable<Void>> chunks = new ArrayList<>();
+        for (int start=0; start<codes.length; start+=chunkSize) {
+            int first = start;
+            int last = Math.min(start + chunkSize, codes.length);
+            chunks.add(() -> {
+                Worker worker = new Worker();
+                for (int index=first; index<last; index++) {
+                    task.run(worker, index);
+                }
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> chunk : pool.invokeAll(chunks)) {
+                chunk.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tablebase generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void setCode(int index, int code) {
+        if (code > MAX_CODE) {
+            throw new IllegalStateException(material + " has a mate longer than a table can hold");
+        }
+        codes[index] = (byte) code;
+        highestCode.accumulateAndGet(code, Math::max);
+    }
+
+    private int longestWhiteWin() {
+        int longest = 0;
+        for (int index=0; index<codes.length / 2; index++) {
+            int code = codes[index] & 0xFF;
+            if (isWin(code)) {
+                longest = Math.max(longest, code - 1);
+            }
+        }
+        return longest;
+    }
+
+    // Codes are written as fixed-width bit fields, little end first within big-endian longs
+    private void write(Path path) throws IOException {
+        int bits = Math.max(1, 32 - Integer.numberOfLeadingZeros(highestCode.get()));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(Tablebase.MAGIC);
+            out.writeInt(bits);
+
+            long word = 0L;
+            int used = 0;
+            for (byte code : codes) {
+                long value = code & 0xFF;
+                word |= value << used;
+                used += bits;
+                if (used >= 64) {
+                    out.writeLong(word);
+                    used -= 64;
+                    word = used > 0 ? value >>> (bits - used) : 0L;
+                }
+            }
+            if (used > 0) {
+                out.writeLong(word);
+            }
+        }
+    }
+
+    private static boolean isWin(int code) {
+        return code > 0 && ((code - 1) & 1) == 1;
+    }
+
+    // Score of a move for the team making it, from the code of the position it leads to
+    private static int moveScore(int childCode) {
+        if (childCode == 0) {
+            return 0;
+        }
+        int plies = childCode;
+        return isWin(childCode) ? -WIN + plies : WIN - plies;
+    }
+
+    private static int codeOf(int score) {
+        if (score == 0) {
+            return 0;
+        }
+        return (score > 0 ? WIN - score : score + WIN) + 1;
+    }
+
+    // Per-thread board and move lists, reused for every position of a chunk
+    private final class Worker {
+        private final ChessBoard board = new ChessBoard();
+        private final MoveList moves = new MoveList();
+        private final int[] predecessors = new int[MoveList.CAPACITY];
+        private final int pieceCount = material.pieceCount();
+        private ChessGame.TeamColor toMove;
+
+        // Place the position's pieces, or return false if it's illegal or not the canonical index of its position
+        boolean setUp(int index) {
+            long previous = board.getOccupancy();
+            while (previous != 0) {
+                board.addPiece(ChessPosition.of(Bitboards.lsb(previous)), null);
+                previous = Bitboards.clearLsb(previous);
+            }
+
+            long placed = 0L;
+            for (int piece=0; piece<pieceCount; piece++) {
+                int square = material.square(index, piece);
+                if ((placed & Bitboards.bit(square)) != 0
+                        || (piece > 0 && material.sameKind(piece, piece - 1) && square < material.square(index, piece - 1))) {
+                    return false;
+                }
+                int row = Bitboards.rowOf(square);
+                if (material.type(piece) == ChessPiece.PieceType.PAWN && (row == 1 || row == 8)) {
+                    return false;
+                }
+                placed |= Bitboards.bit(square);
+            }
+
+            for (int piece=0; piece<pieceCount; piece++) {
+                board.addPiece(ChessPosition.of(material.square(index, piece)),
+                    ChessPiece.of(material.color(piece), material.type(piece)));
+            }
+            toMove = TablebaseMaterial.toMove(index, pieceCount);
+            return !inCheck(TablebaseMaterial.opponent(toMove));
+        }
+
+        // First look at a position: mates, stalemates, and what leaving the table is worth
+        void initialize(int index) {
+            if (!setUp(index)) {
+                return;
+            }
+
+            moves.clear();
+            MoveGenerator.generateLegalMoves(board, toMove, moves);
+            if (moves.isEmpty()) {
+                if (inCheck(toMove)) {
+                    setCode(index, 1);
+                }
+                return;
+            }
+
+            int bestExit = -WIN - 1;
+            boolean staysInTable = false;
+            for (int i=0; i<moves.size(); i++) {
+                int move = moves.get(i);
+                if (leavesTable(move)) {
+                    bestExit = Math.max(bestExit, moveScore(exitCode(move)));
+                } else {
+                    staysInTable = true;
+                }
+            }
+
+            // A win on leaving the table is only an upper bound until the table's own moves are known
+            if (!staysInTable || bestExit > 0) {
+                setCode(index, codeOf(bestExit));
+            }
+        }
+
+        // Walk back from a position decided at code: into a loss is a win, into wins may be a loss
+        void retreat(int index, int code) {
+            setUp(index);
+            int count = collectPredecessors();
+            boolean lost = !isWin(code);
+            for (int i=0; i<count; i++) {
+                int predecessor = predecessors[i];
+                int current = codes[predecessor] & 0xFF;
+                if (lost) {
+                    if (current == 0 || (isWin(current) && current > code + 1)) {
+                        setCode(predecessor, code + 1);
+                    }
+                } else if (current == 0) {
+                    int lossCode = lossCode(predecessor, code);
+                    if (lossCode > 0) {
+                        setCode(predecessor, lossCode);
+                    }
+                }
+            }
+        }
+
+        // The code of a loss if every move from the position leads to a win already decided by code, or 0
+        private int lossCode(int index, int code) {
+            setUp(index);
+            moves.clear();
+            MoveGenerator.generateLegalMoves(board, toMove, moves);
+
+            // The loser makes the mate take as long as possible
+            int best = -WIN - 1;
+            for (int i=0; i<moves.size(); i++) {
+                int move = moves.get(i);
+                int childCode;
+                if (leavesTable(move)) {
+                    childCode = exitCode(move);
+                } else {
+                    long undo = board.makeMove(move);
+                    childCode = codes[material.index(board, TablebaseMaterial.opponent(toMove), false)] & 0xFF;
+                    board.unmakeMove(undo);
+                    if (childCode > code) {
+                        return 0;
+                    }
+                }
+                if (!isWin(childCode)) {
+                    return 0;
+                }
+                best = Math.max(best, moveScore(childCode));
+            }
+            return moves.isEmpty() ? 0 : codeOf(best);
+        }
+
+        // Positions one un-move before the current one, by the team that isn't to move; never captures or promotions
+        private int collectPredecessors() {
+            ChessGame.TeamColor mover = TablebaseMaterial.opponent(toMove);
+            int count = 0;
+            long occupancy = board.getOccupancy();
+            long pieces = board.getOccupancy(mover);
+            while (pieces != 0) {
+                int square = Bitboards.lsb(pieces);
+                pieces = Bitboards.clearLsb(pieces);
+                ChessPiece piece = board.getPiece(square);
+
+                long origins = switch (piece.getPieceType()) {
+                    case KING -> Bitboards.KING_ATTACKS[square];
+                    case KNIGHT -> Bitboards.KNIGHT_ATTACKS[square];
+                    case BISHOP -> SlidingAttacks.bishopAttacks(square, occupancy);
+                    case ROOK -> SlidingAttacks.rookAttacks(square, occupancy);
+                    case QUEEN -> SlidingAttacks.queenAttacks(square, occupancy);
+                    case PAWN -> pawnOrigins(mover, square, occupancy);
+                };
+                origins &= ~occupancy;
+
+                board.addPiece(ChessPosition.of(square), null);
+                while (origins != 0) {
+                    int origin = Bitboards.lsb(origins);
+                    origins = Bitboards.clearLsb(origins);
+                    board.addPiece(ChessPosition.of(origin), piece);
+                    if (!inCheck(toMove)) {
+                        predecessors[count++] = material.index(board, mover, false);
+                    }
+                    board.addPiece(ChessPosition.of(origin), null);
+                }
+                board.addPiece(ChessPosition.of(square), piece);
+            }
+            return count;
+        }
+
+        private boolean leavesTable(int move) {
+            return PackedMove.isCapture(move) || PackedMove.promotion(move) != null;
+        }
+
+        // Code of the position a capture or promotion leads to, from the smaller tables
+        private int exitCode(int move) {
+            long undo = board.makeMove(move);
+            ChessGame.TeamColor opponent = TablebaseMaterial.opponent(toMove);
+            int code = smallerTables.probeCode(board, opponent);
+            if (code < 0 && !cannotMate()) {
+                board.unmakeMove(undo);
+                throw new IllegalStateException("Generate the table for " + describe() + " before " + material);
+            }
+            board.unmakeMove(undo);
+            return Math.max(code, 0);
+        }
+
+        // Bare kings or a single minor piece can never mate
+        private boolean cannotMate() {
+            long minors = 0L;
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                if ((board.getPieces(color, ChessPiece.PieceType.PAWN) | board.getPieces(color, ChessPiece.PieceType.ROOK)
+                        | board.getPieces(color, ChessPiece.PieceType.QUEEN)) != 0) {
+                    return false;
+                }
+                minors |= board.getPieces(color, ChessPiece.PieceType.BISHOP) | board.getPieces(color, ChessPiece.PieceType.KNIGHT);
+            }
+            return Bitboards.popCount(minors) <= 1;
+        }
+
+        private String describe() {
+            StringBuilder name = new StringBuilder();
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                if (color == ChessGame.TeamColor.BLACK) {
+                    name.append('v');
+                }
+                for (char letter : "KQRBNP".toCharArray()) {
+                    ChessPiece.PieceType type = ChessPiece.PieceType.values()["KQBNRP".indexOf(letter)];
+                    name.append(String.valueOf(letter).repeat(Bitboards.popCount(board.getPieces(color, type))));
+                }
+            }
+            return name.toString();
+        }
+
+        private boolean inCheck(ChessGame.TeamColor color) {
+            long king = board.getPieces(color, ChessPiece.PieceType.KING);
+            return board.isSquareAttacked(Bitboards.lsb(king), TablebaseMaterial.opponent(color));
+        }
+    }
+
+    // Squares a pawn on square could have pushed from, one step or two from its starting row
+    private static long pawnOrigins(ChessGame.TeamColor color, int square, long occupancy) {
+        boolean white = color == ChessGame.TeamColor.WHITE;
+        int back = white ? -8 : 8;
+        int row = Bitboards.rowOf(square);
+        if (row == (white ? 2 : 7)) {
+            return Bitboards.EMPTY;
+        }
+
+        long origins = Bitboards.bit(square + back);
+        if (row == (white ? 4 : 5) && (occupancy & Bitboards.bit(square + back)) == 0) {
+            origins |= Bitboards.bit(square + 2 * back);
+        }
+        return origins;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: TablebaseGenerator <directory> [material...]");
+            return;
+        }
+
+        Path directory = Path.of(args[0]);
+        List<String> materials = args.length > 1 ? List.of(args).subList(1, args.length) : DEFAULT_MATERIALS;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (String name : materials) {
+            long start = System.nanoTime();
+            int longest = generate(name, directory, pool);
+            System.out.printf("%s: longest mate %d plies, %.1f s%n", name, longest, (System.nanoTime() - start) / 1e9);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * The pieces of one endgame table, such as KQvKR, and the index of each of its positions.
+ * <p>
+ * Tables are written with the stronger side as white. A position's index holds the side to
+ * move in its top bit and one 6-bit square per piece below it, white's pieces first, each side
+ * in the order of its name. Pieces of the same kind take their squares in ascending order, so
+ * every position has exactly one index. Positions with black as the stronger side are looked
+ * up in the same table with the board mirrored top to bottom and the colours swapped.
+ */
+final class TablebaseMaterial {
+
+    // Order pieces are listed in a table name
+    private static final String PIECE_LETTERS = "KQRBNP";
+    private static final ChessPiece.PieceType[] PIECE_TYPES = {
+        ChessPiece.PieceType.KING,
+        ChessPiece.PieceType.QUEEN,
+        ChessPiece.PieceType.ROOK,
+        ChessPiece.PieceType.BISHOP,
+        ChessPiece.PieceType.KNIGHT,
+        ChessPiece.PieceType.PAWN
+    };
+    private static final int SIDE_SIGNATURE_BITS = 6 * ChessBoard.SIGNATURE_BITS;
+    private static final long SIDE_SIGNATURE_MASK = (1L << SIDE_SIGNATURE_BITS) - 1;
+
+    private final String name;
+    private final ChessGame.TeamColor[] colors;
+    private final ChessPiece.PieceType[] types;
+    private final long signature;
+
+    private TablebaseMaterial(String name, ChessGame.TeamColor[] colors, ChessPiece.PieceType[] types) {
+        this.name = name;
+        this.colors = colors;
+        this.types = types;
+
+        long pieces = 0L;
+        for (int i=0; i<types.length; i++) {
+            pieces += 1L << (ChessBoard.pieceIndex(colors[i], types[i]) * ChessBoard.SIGNATURE_BITS);
+        }
+        this.signature = pieces;
+    }
+
+    /**
+     * @param name table name such as KRvK: each side's king, then its other pieces in KQRBNP order
+     * @return The table's pieces
+     * @throws IllegalArgumentException if the name isn't a valid table of at most Tablebase.MAX_PIECES pieces
+     */
+    static TablebaseMaterial parse(String name) {
+        String[] sides = name.split("v", -1);
+        if (sides.length != 2 || name.length() - 1 > Tablebase.MAX_PIECES) {
+            throw new IllegalArgumentException("Not a table of up to " + Tablebase.MAX_PIECES + " pieces: " + name);
+        }
+
+        int count = name.length() - 1;
+        ChessGame.TeamColor[] colors = new ChessGame.TeamColor[count];
+        ChessPiece.PieceType[] types = new ChessPiece.PieceType[count];
+        int piece = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            String side = sides[color.ordinal()];
+            if (side.isEmpty() || side.charAt(0) != 'K') {
+                throw new IllegalArgumentException("Each side of a table needs its king first: " + name);
+            }
+
+            int lastLetter = 0;
+            for (int i=0; i<side.length(); i++) {
+                int letter = PIECE_LETTERS.indexOf(side.charAt(i));
+                if (letter < 0 || (i > 0 && (letter == 0 || letter < lastLetter))) {
+                    throw new IllegalArgumentException("Table pieces must be listed in " + PIECE_LETTERS + " order: " + name);
+                }
+                lastLetter = letter;
+                colors[piece] = color;
+                types[piece] = PIECE_TYPES[letter];
+                piece++;
+            }
+        }
+        return new TablebaseMaterial(name, colors, types);
+    }
+
+    String name() {
+        return name;
+    }
+
+    int pieceCount() {
+        return types.length;
+    }
+
+    ChessGame.TeamColor color(int piece) {
+        return colors[piece];
+    }
+
+    ChessPiece.PieceType type(int piece) {
+        return types[piece];
+    }
+
+    /**
+     * @return Number of indexes, including those of illegal positions
+     */
+    int size() {
+        return 2 << (6 * types.length);
+    }
+
+    /**
+     * @return Material signature (see ChessBoard.getMaterialSignature) of boards the table covers as written
+     */
+    long signature() {
+        return signature;
+    }
+
+    /**
+     * @return Material signature of boards the table covers with the colours swapped
+     */
+    long flippedSignature() {
+        return flip(signature);
+    }
+
+    /**
+     * @return The signature of the same material with the colours swapped
+     */
+    static long flip(long signature) {
+        return (signature >>> SIDE_SIGNATURE_BITS) | ((signature & SIDE_SIGNATURE_MASK) << SIDE_SIGNATURE_BITS);
+    }
+
+    /**
+     * @return True if two pieces in the table are the same kind, so their squares must ascend
+     */
+    boolean sameKind(int piece, int other) {
+        return colors[piece] == colors[other] && types[piece] == types[other];
+    }
+
+    static ChessGame.TeamColor toMove(int index, int pieceCount) {
+        return (index >>> (6 * pieceCount)) == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    int square(int index, int piece) {
+        return (index >>> (6 * (types.length - 1 - piece))) & 63;
+    }
+
+    /**
+     * Finds the index of a board holding exactly the table's pieces
+     *
+     * @param board   the board
+     * @param toMove  the team to move
+     * @param flipped true if the board's colours are swapped relative to the table
+     * @return The position's index
+     */
+    int index(ChessBoard board, ChessGame.TeamColor toMove, boolean flipped) {
+        int mirror = flipped ? 56 : 0;
+        int[] squares = new int[types.length];
+        for (int piece=0; piece<types.length; ) {
+            ChessGame.TeamColor color = flipped ? opponent(colors[piece]) : colors[piece];
+            long pieces = board.getPieces(color, types[piece]);
+            int first = piece;
+            while (pieces != 0) {
+                squares[piece++] = Bitboards.lsb(pieces) ^ mirror;
+                pieces = Bitboards.clearLsb(pieces);
+            }
+            Arrays.sort(squares, first, piece);
+        }
+
+        int index = (flipped ? opponent(toMove) : toMove) == ChessGame.TeamColor.WHITE ? 0 : 1;
+        for (int square : squares) {
+            index = (index << 6) | square;
+        }
+        return index;
+    }
+
+    static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
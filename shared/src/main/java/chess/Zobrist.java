@@ -0,0 +1,82 @@
+package chess;
+
+/**
+ * Random keys for Zobrist position hashing.
+ * <p>
+ * A position's key is the XOR of one key per piece on its square, plus keys for the side to
+ * move, the castling rights and the en passant file. XOR is its own inverse, so a move
+ * updates the key by toggling only the keys that changed. The keys come from a fixed seed,
+ * so a position hashes the same on every server and across restarts.
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplitMix random = new SplitMix(0x6A09E667F3BCC909L);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square=0; square<64; square++) {
+                squares[square] = random.next();
+            }
+        }
+        for (int rights=1; rights<16; rights++) {
+            CASTLING[rights] = random.next();
+        }
+        for (int file=0; file<8; file++) {
+            EN_PASSANT_FILE[file] = random.next();
+        }
+        BLACK_TO_MOVE = random.next();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return Key for a piece (by bitboard slot) standing on a square
+     */
+    static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+
+    /**
+     * @return Key toggled in when black is to move
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * @param rights castling rights as a 4-bit set
+     * @return Key for the set of castling rights; the empty set hashes to 0
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param file the 0-indexed file an en passant capture could land on
+     * @return Key for the en passant file
+     */
+    public static long enPassantFile(int file) {
+        return EN_PASSANT_FILE[file];
+    }
+
+    // Small, well-mixed generator so the key set never depends on java.util.Random's implementation
+    private static final class SplitMix {
+        private long state;
+
+        SplitMix(long seed) {
+            this.state = seed;
+        }
+
+        long next() {
+            long z = (state += 0x9E3779B97F4A7C15L);
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.PieceSquareTables;
+
+/**
+ * Static evaluation: material plus piece-square bonuses, in centipawns.
+ * <p>
+ * The board keeps separate middlegame and endgame sums of its pieces' scores as they move
+ * (see {@link PieceSquareTables}), so evaluating is a blend of the two by how much material
+ * is left, with no scan of the board.
+ */
+public final class Evaluation {
+
+    /**
+     * Centipawn value of each piece type, indexed by PieceType ordinal, for weighing exchanges
+     */
+    public static final int[] PIECE_VALUES = {0, 900, 330, 320, 500, 100};
+
+    private Evaluation() {
+    }
+
+    /**
+     * Evaluates the position from the point of view of the team to move
+     *
+     * @param game the game to evaluate
+     * @return Score in centipawns; positive favours the team to move
+     */
+    public static int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int score = board.getPieceSquareScore();
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+
+        int middlegame = PieceSquareTables.middlegame(score);
+        int endgame = PieceSquareTables.endgame(score);
+        int blended = (middlegame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? blended : -blended;
+    }
+}
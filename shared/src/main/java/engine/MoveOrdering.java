@@ -0,0 +1,149 @@
+package engine;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
+
+/**
+ * Orders each node's moves so the ones most likely to cause a cutoff are searched first.
+ * <p>
+ * The transposition table's move comes first, then captures and promotions by MVV-LVA (most
+ * valuable victim, least valuable attacker), then the two killer moves of the ply (quiet moves
+ * that caused a cutoff in a sibling node), then the remaining quiet moves by their history
+ * score. Moves are scored once per node and picked one at a time, so a node that cuts off
+ * after its first move never pays for a full sort. Everything is kept in primitive arrays
+ * owned by one search thread.
+ */
+final class MoveOrdering {
+
+    private static final int TABLE_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 24;
+    private static final int FIRST_KILLER_SCORE = 1 << 23;
+    private static final int SECOND_KILLER_SCORE = FIRST_KILLER_SCORE - 1;
+    // History scores are halved once any reaches this, so they never reach the killers
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    // Ordering weight of each piece type, indexed by PieceType ordinal; the king attacks last
+    private static final int[] VICTIM_VALUES = {0, 9, 3, 3, 5, 1};
+    private static final int[] ATTACKER_VALUES = {10, 9, 3, 3, 5, 1};
+
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    private final int[][] history = new int[12][64];
+    private final int[][] scores = new int[Search.MAX_PLY][MoveList.CAPACITY];
+
+    /**
+     * Forgets the killers of the last search and fades its history, which is still a fair guide
+     */
+    void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = PackedMove.NONE;
+            plyKillers[1] = PackedMove.NONE;
+        }
+        for (int[] pieceHistory : history) {
+            for (int to=0; to<64; to++) {
+                pieceHistory[to] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Scores every move of a node, ready for next to pick them in order
+     *
+     * @param board     the position the moves are for
+     * @param moves     the node's moves
+     * @param ply       distance from the root
+     * @param tableMove move stored for the position, or PackedMove.NONE
+     */
+    void score(ChessBoard board, MoveList moves, int ply, int tableMove) {
+        int[] plyScores = scores[ply];
+        int[] plyKillers = killers[ply];
+        for (int i=0; i<moves.size(); i++) {
+            int move = moves.get(i);
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            ChessPiece.PieceType promotion = PackedMove.promotion(move);
+
+            if (move == tableMove) {
+                plyScores[i] = TABLE_MOVE_SCORE;
+            } else if (PackedMove.isCapture(move) || promotion != null) {
+                // En passant leaves the target square empty, but always takes a pawn
+                ChessPiece victim = board.getPiece(to);
+                int victimValue = victim != null ? VICTIM_VALUES[victim.getPieceType().ordinal()] :
+                    PackedMove.isCapture(move) ? VICTIM_VALUES[ChessPiece.PieceType.PAWN.ordinal()] : 0;
+                int promotionValue = promotion != null ? VICTIM_VALUES[promotion.ordinal()] : 0;
+                int attackerValue = ATTACKER_VALUES[board.getPiece(from).getPieceType().ordinal()];
+                plyScores[i] = CAPTURE_SCORE + (victimValue + promotionValue) * 16 - attackerValue;
+            } else if (move == plyKillers[0]) {
+                plyScores[i] = FIRST_KILLER_SCORE;
+            } else if (move == plyKillers[1]) {
+                plyScores[i] = SECOND_KILLER_SCORE;
+            } else {
+                plyScores[i] = history[pieceIndex(board.getPiece(from))][to];
+            }
+        }
+    }
+
+    /**
+     * Moves the best scored of the moves not yet picked to index and returns it
+     *
+     * @param moves the node's moves, scored by score
+     * @param ply   distance from the root
+     * @param index how many moves have been picked already
+     * @return The move to search next
+     */
+    int next(MoveList moves, int ply, int index) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i=index + 1; i<moves.size(); i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = plyScores[best];
+            plyScores[best] = plyScores[index];
+            plyScores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Records a quiet move that caused a beta cutoff; captures and promotions are already ordered well
+     *
+     * @param board the position the move was made from
+     * @param move  the move that cut off
+     * @param ply   distance from the root
+     * @param depth remaining depth of the node, deeper cutoffs counting for more
+     */
+    void recordCutoff(ChessBoard board, int move, int ply, int depth) {
+        if (PackedMove.isCapture(move) || PackedMove.promotion(move) != null) {
+            return;
+        }
+
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+
+        int[] pieceHistory = history[pieceIndex(board.getPiece(PackedMove.from(move)))];
+        int to = PackedMove.to(move);
+        pieceHistory[to] += depth * depth;
+        if (pieceHistory[to] >= HISTORY_LIMIT) {
+            for (int[] halved : history) {
+                for (int square=0; square<64; square++) {
+                    halved[square] >>= 1;
+                }
+            }
+        }
+    }
+
+    private static int pieceIndex(ChessPiece piece) {
+        return piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal();
+    }
+}
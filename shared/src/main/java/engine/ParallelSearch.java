@@ -0,0 +1,208 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Tablebase;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Multi-threaded search using Lazy SMP.
+ * <p>
+ * Every thread runs its own iterative deepening {@link Search} on the same root and the
+ * threads share nothing but the {@link TranspositionTable}. Helpers start their iterations
+ * at staggered depths, so their results fill the table ahead of the main thread, which then
+ * finds its cutoffs and move ordering already there. The main thread's result is the one
+ * returned; helpers are stopped as soon as it finishes.
+ */
+public final class ParallelSearch {
+
+    private static final int DEFAULT_TABLE_MB = 64;
+
+    private final Search[] searches;
+    private final SearchResult[] threadResults;
+
+    /**
+     * Creates a parallel search with its own transposition table of the default size
+     *
+     * @param game    the position to search; each thread works on its own copy
+     * @param threads number of threads to search with, including the calling thread
+     */
+    public ParallelSearch(ChessGame game, int threads) {
+        this(game, threads, new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * @param game    the position to search; each thread works on its own copy
+     * @param threads number of threads to search with, including the calling thread
+     * @param table   transposition table shared by every thread
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public ParallelSearch(ChessGame game, int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread: " + threads);
+        }
+
+        searches = new Search[threads];
+        threadResults = new SearchResult[threads];
+        for (int i=0; i<threads; i++) {
+            searches[i] = new Search(game, table);
+        }
+    }
+
+    /**
+     * Lets every thread score endgames the tablebase covers exactly instead of searching them
+     *
+     * @param tablebase tables to probe, or null to search every position
+     */
+    public void setTablebase(Tablebase tablebase) {
+        for (Search search : searches) {
+            search.setTablebase(tablebase);
+        }
+    }
+
+    /**
+     * Reports each iteration the main thread completes, with the nodes every thread has visited so far
+     *
+     * @param iterationListener called on the main search thread with each iteration's result, or null for none
+     */
+    public void setIterationListener(Consumer<SearchResult> iterationListener) {
+        if (iterationListener == null) {
+            searches[0].setIterationListener(null);
+            return;
+        }
+        searches[0].setIterationListener(result -> {
+            long nodes = 0;
+            for (Search search : searches) {
+                nodes += search.nodeCount();
+            }
+            iterationListener.accept(new SearchResult(
+                result.bestMove(), result.score(), result.depth(), nodes, result.elapsedNanos(), result.pv()));
+        });
+    }
+
+    /**
+     * Searches the position on every thread until the main thread reaches one of the limits
+     * or stop is called. Node limits apply to the main thread's nodes only.
+     *
+     * @param limits when to stop searching
+     * @return The main thread's best move, with the nodes of every thread added together
+     */
+    public SearchResult search(SearchLimits limits) {
+        return search(limits, null);
+    }
+
+    /**
+     * Searches the position on every thread within a move's budget; the main thread decides when
+     * the best move has settled and helpers stop with it
+     *
+     * @param timeManager the move's time or node budget
+     * @return The main thread's best move, with the nodes of every thread added together
+     */
+    public SearchResult search(TimeManager timeManager) {
+        return search(timeManager, 0);
+    }
+
+    /**
+     * Searches the position on every thread within a move's budget, never deeper than a fixed depth
+     *
+     * @param timeManager the move's time or node budget
+     * @param maxDepth    deepest iteration to complete, or 0 for no limit
+     * @return The main thread's best move, with the nodes of every thread added together
+     */
+    public SearchResult search(TimeManager timeManager, int maxDepth) {
+        return search(timeManager.limits(maxDepth), timeManager);
+    }
+
+    private SearchResult search(SearchLimits limits, TimeManager timeManager) {
+        for (Search search : searches) {
+            search.clearStop();
+        }
+        Arrays.fill(threadResults, null);
+
+        // Helpers only stop on depth, time or the main thread finishing
+        SearchLimits helperLimits = new SearchLimits(limits.maxDepth(), 0, limits.maxTimeMillis());
+        Thread[] helpers = new Thread[searches.length - 1];
+        for (int i=1; i<searches.length; i++) {
+            int index = i;
+            helpers[i - 1] = new Thread(
+                () -> threadResults[index] = searches[index].search(helperLimits, 1 + index % 2, null),
+                "search-helper-" + index
+            );
+            helpers[i - 1].setDaemon(true);
+            helpers[i - 1].start();
+        }
+
+        SearchResult main = searches[0].search(limits, 1, timeManager);
+        threadResults[0] = main;
+        stop();
+        for (Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        long nodes = 0;
+        for (SearchResult result : threadResults) {
+            nodes += result == null ? 0 : result.nodes();
+        }
+        return new SearchResult(main.bestMove(), main.score(), main.depth(), nodes, main.elapsedNanos(), main.pv());
+    }
+
+    /**
+     * Asks every thread of a running search to stop as soon as possible; safe to call from another thread
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * @return Number of threads searching, including the main thread
+     */
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    /**
+     * @return Each thread's own result from the last search, main thread first, for per-thread
+     * node counts and speeds; entries are null before the first search
+     */
+    public List<SearchResult> getThreadResults() {
+        return Arrays.asList(threadResults.clone());
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: ParallelSearch <threads> <depth> [fen]");
+            return;
+        }
+
+        int threads = Integer.parseInt(args[0]);
+        int depth = Integer.parseInt(args[1]);
+        String fen = args.length > 2 ?
+            String.join(" ", Arrays.copyOfRange(args, 2, args.length)) :
+            Fen.STARTING_POSITION;
+
+        ParallelSearch search = new ParallelSearch(Fen.parse(fen), threads);
+        SearchResult result = search.search(SearchLimits.depth(depth));
+
+        List<SearchResult> threadResults = search.getThreadResults();
+        for (int i=0; i<threadResults.size(); i++) {
+            SearchResult threadResult = threadResults.get(i);
+            System.out.printf("Thread %d: depth %d, %d nodes, %d nodes/s%n",
+                i, threadResult.depth(), threadResult.nodes(), threadResult.nodesPerSecond());
+        }
+        System.out.println("Best move: " + result.pvText());
+        System.out.println("Score: " + result.score());
+        System.out.println("Nodes: " + result.nodes());
+        System.out.printf("Time: %.3f s%n", result.elapsedNanos() / 1e9);
+        System.out.println("Speed: " + result.nodesPerSecond() + " nodes/s");
+    }
+}
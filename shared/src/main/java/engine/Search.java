@@ -0,0 +1,372 @@
+package engine;
+
+import chess.ChessGame;
+import chess.MoveList;
+import chess.PackedMove;
+import chess.Tablebase;
+
+import java.util.function.Consumer;
+
+/**
+ * Negamax alpha-beta search with iterative deepening.
+ * <p>
+ * Each iteration searches one ply deeper than the last, starting with the previous best move,
+ * until a limit is reached; the result is that of the deepest completed iteration. Results
+ * are kept in a {@link TranspositionTable}, which cuts off positions already searched deeply
+ * enough and supplies the best move to try first everywhere else; {@link MoveOrdering} orders
+ * the rest. The search runs on its own copy of the game using packed moves and make/unmake,
+ * with move lists and the principal variation table allocated up front, so visiting a node
+ * allocates nothing.
+ */
+public final class Search {
+
+    /**
+     * Deepest ply the search can reach, including any extensions
+     */
+    public static final int MAX_PLY = 128;
+
+    /**
+     * Score of delivering checkmate now; a mate n plies away scores MATE - n
+     */
+    public static final int MATE = 30000;
+
+    static final int INFINITY = 32000;
+    static final int DRAW = 0;
+
+    // The clock is only read every this many nodes, as a mask; node limits are checked on every node
+    private static final int CHECK_INTERVAL = 2047;
+    private static final int DEFAULT_TABLE_MB = 16;
+
+    private final ChessGame game;
+    private final TranspositionTable table;
+    private final MoveOrdering ordering = new MoveOrdering();
+    private Tablebase tablebase;
+    private Consumer<SearchResult> iterationListener;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    private SearchLimits limits;
+    private long nodes;
+    private long startNanos;
+    private volatile boolean stopped;
+
+    private int rootBestMove;
+
+    /**
+     * Creates a search with its own transposition table of the default size
+     *
+     * @param game the position to search; the search works on a copy, so it isn't modified
+     */
+    public Search(ChessGame game) {
+        this(game, new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * @param game  the position to search; the search works on a copy, so it isn't modified
+     * @param table transposition table to use, which may be shared with other searches
+     */
+    public Search(ChessGame game, TranspositionTable table) {
+        this.game = new ChessGame(game);
+        this.table = table;
+        for (int ply=0; ply<MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Lets the search score endgames the tablebase covers exactly instead of searching them
+     *
+     * @param tablebase tables to probe, or null to search every position
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Reports each completed iteration as it finishes, e.g. to print progress while searching
+     *
+     * @param iterationListener called on the searching thread with each iteration's result, or null for none
+     */
+    public void setIterationListener(Consumer<SearchResult> iterationListener) {
+        this.iterationListener = iterationListener;
+    }
+
+    /**
+     * Searches the position until one of the limits is reached or stop is called
+     *
+     * @param limits when to stop searching
+     * @return The best move of the deepest completed iteration
+     */
+    public SearchResult search(SearchLimits limits) {
+        stopped = false;
+        return search(limits, 1, null);
+    }
+
+    /**
+     * Searches the position within a move's budget, stopping early once the best move settles
+     *
+     * @param timeManager the move's time or node budget
+     * @return The best move of the deepest completed iteration
+     */
+    public SearchResult search(TimeManager timeManager) {
+        stopped = false;
+        return search(timeManager.limits(0), 1, timeManager);
+    }
+
+    /**
+     * Searches from a later first iteration, without clearing an earlier stop request; Lazy SMP
+     * helpers start at staggered depths so they don't all follow the main thread's tree
+     *
+     * @param limits      when to stop searching
+     * @param startDepth  depth of the first iteration
+     * @param timeManager budget to stop early within, or null to search until a limit is reached
+     * @return The best move of the deepest completed iteration
+     */
+    SearchResult search(SearchLimits limits, int startDepth, TimeManager timeManager) {
+        this.limits = limits;
+        nodes = 0;
+        ordering.newSearch();
+        startNanos = System.nanoTime();
+
+        MoveList rootMoves = new MoveList();
+        game.generateLegalMoves(rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = game.isInCheck(game.getTeamTurn()) ? -MATE : DRAW;
+            return new SearchResult(PackedMove.NONE, score, 0, 0, elapsedNanos(), new int[0]);
+        }
+
+        // With nothing else known, fall back to the first legal move if no iteration completes
+        SearchResult result = new SearchResult(rootMoves.get(0), DRAW, 0, 0, 0, new int[] {rootMoves.get(0)});
+        int maxDepth = limits.maxDepth() > 0 ? Math.min(limits.maxDepth(), MAX_PLY - 1) : MAX_PLY - 1;
+        int stableIterations = 0;
+
+        for (int depth=startDepth; depth<=maxDepth; depth++) {
+            rootBestMove = result.bestMove();
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break;
+            }
+
+            int[] pv = new int[pvLength[0]];
+            System.arraycopy(pvTable[0], 0, pv, 0, pv.length);
+            stableIterations = result.depth() > 0 && pv[0] == result.bestMove() ? stableIterations + 1 : 0;
+            result = new SearchResult(pv[0], score, depth, nodes, elapsedNanos(), pv);
+            if (iterationListener != null) {
+                iterationListener.accept(result);
+            }
+
+            // No deeper search can improve on a forced mate, and a budgeted move with only one reply needs no search
+            if (result.isMateScore() || limitReached()) {
+                break;
+            }
+            if (timeManager != null && (rootMoves.size() == 1
+                    || timeManager.shouldStop(elapsedNanos() / 1_000_000, nodes, stableIterations))) {
+                break;
+            }
+        }
+
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes, elapsedNanos(), result.pv());
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible; safe to call from another thread
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    // Nodes visited so far by a running search, read from another thread only as a progress estimate
+    long nodeCount() {
+        return nodes;
+    }
+
+    // Called before starting helper threads, so a stop that arrives while they start up isn't lost
+    void clearStop() {
+        stopped = false;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return DRAW;
+        }
+
+        // Any repetition is scored as the draw it would become if both sides kept repeating
+        if (ply > 0 && (game.getHalfmoveClock() >= 100 || game.isRepetition() || game.hasInsufficientMaterial())) {
+            return DRAW;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(game);
+        }
+
+        // A tablebase hit is exact, with mates scored by their distance like any other
+        if (ply > 0 && tablebase != null) {
+            Tablebase.Result result = tablebase.probe(game);
+            if (result != null) {
+                return result.isDraw() ? DRAW :
+                    result.isWin() ? MATE - ply - result.pliesToMate() :
+                    -MATE + ply + result.pliesToMate();
+            }
+        }
+
+        // A deep enough stored result settles the node outright, except at the root which must produce a move
+        long key = game.getPositionKey();
+        long entry = table.probe(key);
+        int tableMove = PackedMove.NONE;
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int tableScore = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && tableScore >= beta)
+                        || (bound == TranspositionTable.UPPER && tableScore <= alpha)) {
+                    return tableScore;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return game.isInCheck(game.getTeamTurn()) ? -MATE + ply : DRAW;
+        }
+        ordering.score(game.getBoard(), moves, ply, ply == 0 && rootBestMove != PackedMove.NONE ? rootBestMove : tableMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        for (int i=0; i<moves.size(); i++) {
+            int move = ordering.next(moves, ply, i);
+            long undo = game.makeMoveUnchecked(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            game.unmakeMove(undo);
+
+            if (stopped) {
+                return DRAW;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        ordering.recordCutoff(game.getBoard(), move, ply, depth);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.LOWER :
+            bestScore > originalAlpha ? TranspositionTable.EXACT :
+            TranspositionTable.UPPER;
+        table.store(key, bestMove, bestScore, depth, bound, ply);
+        return bestScore;
+    }
+
+    // Search only captures and promotions past the horizon, so no leaf is scored with a capture pending
+    private int quiescence(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return DRAW;
+        }
+
+        if (game.getHalfmoveClock() >= 100 || game.isRepetition() || game.hasInsufficientMaterial()) {
+            return DRAW;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(game);
+        }
+
+        // Out of check the side to move can stand pat instead of capturing; in check every evasion is searched
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            bestScore = Evaluation.evaluate(game);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.generateLegalMoves(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : DRAW;
+        }
+        ordering.score(game.getBoard(), moves, ply, PackedMove.NONE);
+
+        for (int i=0; i<moves.size(); i++) {
+            int move = ordering.next(moves, ply, i);
+            boolean promotion = PackedMove.promotion(move) != null;
+            if (!inCheck) {
+                // Captures and promotions are ordered ahead of every quiet move
+                if (!PackedMove.isCapture(move) && !promotion) {
+                    break;
+                }
+                if (!promotion && !StaticExchange.isAtLeast(game.getBoard(), move, 0)) {
+                    continue;
+                }
+            }
+
+            long undo = game.makeMoveUnchecked(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            game.unmakeMove(undo);
+
+            if (stopped) {
+                return DRAW;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    // The move becomes the first of this ply's line, followed by the line found below it
+    private void updatePv(int ply, int move) {
+        pvTable[ply][ply] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, childLength - ply - 1);
+        pvLength[ply] = childLength;
+    }
+
+    // Counts a visited node and reports whether the search has to stop; a node cap is exact, so it's
+    // one compare per node, while the clock costs a system call and is only read now and then
+    private boolean countNode() {
+        nodes++;
+        if ((limits.maxNodes() > 0 && nodes >= limits.maxNodes())
+                || ((nodes & CHECK_INTERVAL) == 0 && timeLimitReached())) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private boolean limitReached() {
+        return (limits.maxNodes() > 0 && nodes >= limits.maxNodes()) || timeLimitReached();
+    }
+
+    private boolean timeLimitReached() {
+        return limits.maxTimeMillis() > 0 && elapsedNanos() >= limits.maxTimeMillis() * 1_000_000L;
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
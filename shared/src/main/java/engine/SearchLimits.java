@@ -0,0 +1,45 @@
+package engine;
+
+/**
+ * When a search should stop. Any limit that is reached ends the search; zero means no limit.
+ *
+ * @param maxDepth      deepest iteration to complete
+ * @param maxNodes      most nodes to visit
+ * @param maxTimeMillis longest time to search for
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long maxTimeMillis) {
+
+    public SearchLimits {
+        if (maxDepth < 0 || maxNodes < 0 || maxTimeMillis < 0) {
+            throw new IllegalArgumentException("Search limits can't be negative");
+        }
+    }
+
+    /**
+     * @return Limits that search to a fixed depth
+     */
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, 0, 0);
+    }
+
+    /**
+     * @return Limits that stop after a number of nodes
+     */
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, maxNodes, 0);
+    }
+
+    /**
+     * @return Limits that stop after a length of time
+     */
+    public static SearchLimits time(long maxTimeMillis) {
+        return new SearchLimits(0, 0, maxTimeMillis);
+    }
+
+    /**
+     * @return Limits that only stop when the search is told to
+     */
+    public static SearchLimits infinite() {
+        return new SearchLimits(0, 0, 0);
+    }
+}
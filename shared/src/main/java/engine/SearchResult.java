@@ -0,0 +1,52 @@
+package engine;
+
+import chess.ChessMove;
+import chess.PackedMove;
+
+/**
+ * The outcome of a search: the best move found and the statistics of finding it
+ *
+ * @param bestMove     packed best move, or PackedMove.NONE if the position has no legal move
+ * @param score        score of the best move in centipawns for the team to move
+ * @param depth        deepest iteration that completed
+ * @param nodes        positions visited
+ * @param elapsedNanos time spent searching
+ * @param pv           principal variation: the best line found, starting with bestMove
+ */
+public record SearchResult(int bestMove, int score, int depth, long nodes, long elapsedNanos, int[] pv) {
+
+    /**
+     * @return The best move as a ChessMove, or null if there is none
+     */
+    public ChessMove bestChessMove() {
+        return bestMove == PackedMove.NONE ? null : PackedMove.toChessMove(bestMove);
+    }
+
+    /**
+     * @return Nodes searched per second
+     */
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMateScore() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    /**
+     * @return The principal variation in long algebraic notation, e.g. "e2e4 e7e5"
+     */
+    public String pvText() {
+        StringBuilder text = new StringBuilder();
+        for (int move : pv) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(PackedMove.toLongAlgebraic(move));
+        }
+        return text.toString();
+    }
+}
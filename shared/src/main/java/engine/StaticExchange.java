@@ -0,0 +1,118 @@
+package engine;
+
+import chess.Bitboards;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PackedMove;
+import chess.SlidingAttacks;
+
+/**
+ * Static exchange evaluation: whether a capture wins material once every piece that can
+ * recapture on its square has had its turn, worked out from attack sets without making moves.
+ * <p>
+ * Each side recaptures with its least valuable attacker, and removing an attacker from the
+ * occupancy uncovers any slider lined up behind it. Either side may stop capturing when going
+ * on would lose more, so the exchange is resolved as a sequence of stand-or-recapture choices
+ * against a threshold. Pins are ignored.
+ */
+final class StaticExchange {
+
+    private static final ChessPiece.PieceType[] LEAST_VALUABLE_FIRST = {
+        ChessPiece.PieceType.PAWN,
+        ChessPiece.PieceType.KNIGHT,
+        ChessPiece.PieceType.BISHOP,
+        ChessPiece.PieceType.ROOK,
+        ChessPiece.PieceType.QUEEN,
+        ChessPiece.PieceType.KING
+    };
+
+    private StaticExchange() {
+    }
+
+    /**
+     * Determines if a capture gains at least a threshold of material after all recaptures
+     *
+     * @param board     the position the capture is made in
+     * @param move      packed capture for the team whose piece stands on its start square
+     * @param threshold least material to gain, in centipawns
+     * @return True if the team making the capture comes out at least threshold ahead
+     */
+    static boolean isAtLeast(ChessBoard board, int move, int threshold) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece mover = board.getPiece(from);
+        ChessPiece victim = board.getPiece(to);
+
+        // En passant takes a pawn that isn't on the target square
+        long occupancy = board.getOccupancy() & ~Bitboards.bit(from);
+        int victimValue = 0;
+        if (victim != null) {
+            victimValue = value(victim.getPieceType());
+        } else if (PackedMove.isCapture(move)) {
+            victimValue = value(ChessPiece.PieceType.PAWN);
+            occupancy &= ~Bitboards.bit((from & ~7) | (to & 7));
+        }
+
+        // Winning the victim outright isn't enough, or losing the mover for it is still enough
+        int balance = victimValue - threshold;
+        if (balance < 0) {
+            return false;
+        }
+        balance = value(mover.getPieceType()) - balance;
+        if (balance <= 0) {
+            return true;
+        }
+
+        occupancy |= Bitboards.bit(to);
+        ChessGame.TeamColor side = mover.getTeamColor();
+        boolean moverAhead = true;
+        while (true) {
+            side = opponent(side);
+            long attackers = attackers(board, to, occupancy);
+            long sideAttackers = attackers & board.getOccupancy(side);
+            if (sideAttackers == 0) {
+                break;
+            }
+
+            ChessPiece.PieceType type = leastValuable(board, side, sideAttackers);
+            moverAhead = !moverAhead;
+
+            // The king can only recapture if nothing is left to take it back
+            if (type == ChessPiece.PieceType.KING) {
+                return (attackers & board.getOccupancy(opponent(side))) != 0 ? !moverAhead : moverAhead;
+            }
+
+            // balance is what the side now recapturing must win back to come out ahead
+            balance = value(type) - balance;
+            if (balance < (moverAhead ? 1 : 0)) {
+                break;
+            }
+            occupancy &= ~Bitboards.bit(Bitboards.lsb(sideAttackers & board.getPieces(side, type)));
+        }
+        return moverAhead;
+    }
+
+    // Every piece of either team on the occupancy that attacks the square, sliders seeing through removed pieces
+    private static long attackers(ChessBoard board, int square, long occupancy) {
+        return (board.attackersTo(square, ChessGame.TeamColor.WHITE, occupancy)
+            | board.attackersTo(square, ChessGame.TeamColor.BLACK, occupancy)) & occupancy;
+    }
+
+    private static ChessPiece.PieceType leastValuable(ChessBoard board, ChessGame.TeamColor side, long attackers) {
+        for (ChessPiece.PieceType type : LEAST_VALUABLE_FIRST) {
+            if ((attackers & board.getPieces(side, type)) != 0) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("Attackers without a piece type");
+    }
+
+    private static int value(ChessPiece.PieceType type) {
+        return Evaluation.PIECE_VALUES[type.ordinal()];
+    }
+
+    private static ChessGame.TeamColor opponent(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    }
+}
@@ -0,0 +1,139 @@
+package engine;
+
+/**
+ * Decides how much of a game's clock, or of a node budget, one move's search may use.
+ * <p>
+ * Each move gets an optimum budget, the share of what's left that keeps the clock from running
+ * out, and a maximum the search is never allowed to pass. The optimum is only checked between
+ * iterations of iterative deepening: once the best move has stayed the same for a few
+ * iterations, a deeper search is unlikely to change it, so the search stops well before the
+ * optimum; while it keeps changing, the search may run past it. The maximum and any node cap
+ * become hard {@link SearchLimits} checked inside the search: a node cap is never passed, and
+ * the maximum time only by the few thousand nodes between clock reads.
+ */
+public final class TimeManager {
+
+    // Moves the remaining clock is assumed to cover when the time control doesn't say
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    // Most of the remaining clock one move may take
+    private static final int MAXIMUM_SHARE_PERCENT = 50;
+    // How far past the optimum a move may run, at most
+    private static final int MAXIMUM_OPTIMUM_MULTIPLE = 4;
+    // Percentage of the optimum to use, by how many iterations in a row the best move hasn't changed
+    private static final int[] STABILITY_PERCENT = {150, 110, 85, 65, 50};
+
+    private final long optimumMillis;
+    private final long maximumMillis;
+    private final long optimumNodes;
+    private final long maximumNodes;
+
+    private TimeManager(long optimumMillis, long maximumMillis, long optimumNodes, long maximumNodes) {
+        this.optimumMillis = optimumMillis;
+        this.maximumMillis = maximumMillis;
+        this.optimumNodes = optimumNodes;
+        this.maximumNodes = maximumNodes;
+    }
+
+    /**
+     * Budgets a move from a game clock
+     *
+     * @param remainingMillis time left on the clock of the team to move
+     * @param incrementMillis time added to the clock after each move
+     * @param movesToGo       moves to make before more time is added, or 0 if the clock has to last the game
+     * @param overheadMillis  time lost per move outside the search, such as communication
+     * @return The move's budget
+     */
+    public static TimeManager forClock(long remainingMillis, long incrementMillis, int movesToGo, long overheadMillis) {
+        if (remainingMillis < 0 || incrementMillis < 0 || movesToGo < 0 || overheadMillis < 0) {
+            throw new IllegalArgumentException("Clock times can't be negative");
+        }
+
+        long available = Math.max(remainingMillis - overheadMillis, 1);
+        long optimum = available / budgetMoves(movesToGo) + incrementMillis * 3 / 4;
+        long maximum = Math.min(optimum * MAXIMUM_OPTIMUM_MULTIPLE, available * MAXIMUM_SHARE_PERCENT / 100);
+        optimum = Math.max(Math.min(optimum, maximum), 1);
+        return new TimeManager(optimum, Math.max(maximum, 1), 0, 0);
+    }
+
+    /**
+     * Budgets a move from a shared node allowance, for predictable CPU use regardless of machine speed
+     *
+     * @param remainingNodes nodes left to spend on the game
+     * @param movesToGo      moves the nodes have to last, or 0 for an estimate
+     * @return The move's budget
+     */
+    public static TimeManager forNodeBudget(long remainingNodes, int movesToGo) {
+        if (remainingNodes < 0 || movesToGo < 0) {
+            throw new IllegalArgumentException("Node budgets can't be negative");
+        }
+
+        long optimum = Math.max(remainingNodes / budgetMoves(movesToGo), 1);
+        long maximum = Math.max(Math.min(optimum * MAXIMUM_OPTIMUM_MULTIPLE, remainingNodes * MAXIMUM_SHARE_PERCENT / 100), optimum);
+        return new TimeManager(0, 0, optimum, maximum);
+    }
+
+    /**
+     * Budgets a move that must take a fixed time; the best move's stability doesn't shorten it
+     *
+     * @param moveTimeMillis time to search for
+     * @return The move's budget
+     */
+    public static TimeManager forMoveTime(long moveTimeMillis) {
+        return new TimeManager(0, moveTimeMillis, 0, 0);
+    }
+
+    /**
+     * @param maxNodes most nodes the move may search, or 0 for no cap
+     * @return The same budget, never searching more than maxNodes
+     */
+    public TimeManager withNodeCap(long maxNodes) {
+        if (maxNodes <= 0) {
+            return this;
+        }
+        long cappedMaximum = maximumNodes > 0 ? Math.min(maximumNodes, maxNodes) : maxNodes;
+        long cappedOptimum = optimumNodes > 0 ? Math.min(optimumNodes, cappedMaximum) : 0;
+        return new TimeManager(optimumMillis, maximumMillis, cappedOptimum, cappedMaximum);
+    }
+
+    /**
+     * @param maxDepth deepest iteration to complete, or 0 for no limit
+     * @return The hard limits the search must stop at
+     */
+    public SearchLimits limits(int maxDepth) {
+        return new SearchLimits(maxDepth, maximumNodes, maximumMillis);
+    }
+
+    public long getOptimumMillis() {
+        return optimumMillis;
+    }
+
+    public long getMaximumMillis() {
+        return maximumMillis;
+    }
+
+    public long getOptimumNodes() {
+        return optimumNodes;
+    }
+
+    public long getMaximumNodes() {
+        return maximumNodes;
+    }
+
+    /**
+     * Decides, after an iteration completes, whether to start another
+     *
+     * @param elapsedMillis    time spent on the move so far
+     * @param nodes            nodes searched for the move so far
+     * @param stableIterations completed iterations in a row the best move has stayed the same
+     * @return True if the search should stop with the result it has
+     */
+    public boolean shouldStop(long elapsedMillis, long nodes, int stableIterations) {
+        int percent = STABILITY_PERCENT[Math.min(stableIterations, STABILITY_PERCENT.length - 1)];
+        return (optimumMillis > 0 && elapsedMillis * 100 >= optimumMillis * percent)
+            || (optimumNodes > 0 && nodes * 100 >= optimumNodes * percent);
+    }
+
+    private static int budgetMoves(int movesToGo) {
+        return movesToGo > 0 ? Math.min(movesToGo, DEFAULT_MOVES_TO_GO * 2) : DEFAULT_MOVES_TO_GO;
+    }
+}
@@ -0,0 +1,163 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of search results keyed by 64-bit position key, shared by every search
+ * thread without locks.
+ * <p>
+ * Each slot is two longs in one flat array: the key XOR the data, then the data. A reader
+ * accepts an entry only if the pair XORs back to its key, so a slot torn by two threads
+ * writing at once reads as a miss instead of as a wrong result. Data layout: bits 0-18 best
+ * move (packed), 19-20 bound, 21-28 depth, 29-44 score.
+ */
+public final class TranspositionTable {
+
+    /**
+     * The stored score is exact
+     */
+    public static final int EXACT = 3;
+
+    /**
+     * The true score is at least the stored score (the search failed high)
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * The true score is at most the stored score (the search failed low)
+     */
+    public static final int UPPER = 1;
+
+    /**
+     * Largest table size in megabytes; its two longs per slot fill the largest array Java allows
+     */
+    public static final int MAX_SIZE_MB = 8192;
+
+    private static final int SLOT_BYTES = 16;
+
+    private final long[] entries;
+    private final int slotMask;
+
+    /**
+     * @param sizeMb table size in megabytes, rounded down to a power of two entries
+     * @throws IllegalArgumentException if sizeMb is less than 1 or more than MAX_SIZE_MB
+     */
+    public TranspositionTable(int sizeMb) {
+        int slotCount = slotCount(sizeMb);
+        entries = new long[slotCount * 2];
+        slotMask = slotCount - 1;
+    }
+
+    // Slots a table of the given size holds, always a power of two
+    static int slotCount(int sizeMb) {
+        if (sizeMb < 1 || sizeMb > MAX_SIZE_MB) {
+            throw new IllegalArgumentException("Transposition table size must be from 1 to " + MAX_SIZE_MB + " MB: " + sizeMb);
+        }
+        return (int) Long.highestOneBit(((long) sizeMb << 20) / SLOT_BYTES);
+    }
+
+    /**
+     * Looks up a position
+     *
+     * @param key position key
+     * @return The stored entry, to be read with the static accessors, or 0 if the position isn't stored
+     */
+    public long probe(long key) {
+        int slot = ((int) key & slotMask) << 1;
+        long data = entries[slot + 1];
+        return (entries[slot] ^ data) == key ? data : 0;
+    }
+
+    /**
+     * Stores a search result, replacing whatever was in the slot unless it holds a deeper
+     * result for the same position
+     *
+     * @param key   position key
+     * @param move  best move found (packed), or PackedMove.NONE
+     * @param score score of the position from the searching side's point of view
+     * @param depth remaining depth the position was searched to
+     * @param bound EXACT, LOWER or UPPER
+     * @param ply   distance from the root, used to store mate scores relative to this position
+     */
+    public void store(long key, int move, int score, int depth, int bound, int ply) {
+        int slot = ((int) key & slotMask) << 1;
+        long existing = entries[slot + 1];
+        if ((entries[slot] ^ existing) == key && depth(existing) > depth && bound != EXACT) {
+            return;
+        }
+
+        long data = (move & 0x7FFFFL)
+            | ((long) bound << 19)
+            | ((long) Math.min(depth, 255) << 21)
+            | ((long) (toStoredScore(score, ply) & 0xFFFF) << 29);
+        entries[slot] = key ^ data;
+        entries[slot + 1] = data;
+    }
+
+    /**
+     * Empties the table, e.g. before analysing an unrelated game
+     */
+    public void clear() {
+        Arrays.fill(entries, 0L);
+    }
+
+    /**
+     * @return Occupied slots per thousand, sampled from the start of the table
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, slotMask + 1);
+        int used = 0;
+        for (int i=0; i<sample; i++) {
+            if (entries[i * 2 + 1] != 0) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * @return The best move of an entry
+     */
+    public static int move(long entry) {
+        return (int) (entry & 0x7FFFF);
+    }
+
+    /**
+     * @return The bound of an entry: EXACT, LOWER or UPPER
+     */
+    public static int bound(long entry) {
+        return (int) ((entry >>> 19) & 0x3);
+    }
+
+    /**
+     * @return The depth an entry was searched to
+     */
+    public static int depth(long entry) {
+        return (int) ((entry >>> 21) & 0xFF);
+    }
+
+    /**
+     * @param entry the entry to read
+     * @param ply   distance of the probing position from the root
+     * @return The score of an entry, with mate distances measured from the root again
+     */
+    public static int score(long entry, int ply) {
+        int score = (short) (entry >>> 29);
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score - ply;
+        } else if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    // Mate scores count plies from the root; stored, they count from the position itself
+    private static int toStoredScore(int score, int ply) {
+        if (score >= Search.MATE - Search.MAX_PLY) {
+            return score + ply;
+        } else if (score <= -Search.MATE + Search.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+}
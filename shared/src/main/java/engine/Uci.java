@@ -0,0 +1,325 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Universal Chess Interface adapter, so GUIs and tournament managers such as cutechess-cli
+ * can play the engine.
+ * <p>
+ * Commands are read line by line and answered immediately; "go" starts a {@link ParallelSearch}
+ * on a background thread, which prints an info line per completed iteration and then the best
+ * move, so "stop" and "isready" are still answered while it runs. "go infinite" holds its best
+ * move back until "stop", even if it ends early on a forced mate, as the protocol requires; any
+ * other "go" without a limit searches for a default time. The transposition table lives across searches and is only cleared by "ucinewgame". When the input
+ * ends, a running search with limits is allowed to finish, so a script of commands can be piped in.
+ */
+public final class Uci {
+
+    static final String NAME = "CS240 Chess";
+    static final String AUTHOR = "CS 240";
+
+    static final int DEFAULT_HASH_MB = 16;
+    static final int MAX_HASH_MB = 4096;
+    static final int MAX_THREADS = 256;
+
+    // Time kept back from every clocked move for the GUI to receive it
+    private static final long MOVE_OVERHEAD_MILLIS = 30;
+    // Time to search for when go gives no limit for the team to move and isn't infinite
+    static final long DEFAULT_MOVE_TIME_MILLIS = 1000;
+    private static final long STOP_RETRY_MILLIS = 10;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+
+    private ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+    private TranspositionTable table = new TranspositionTable(DEFAULT_HASH_MB);
+    private int threads = 1;
+
+    private ParallelSearch search;
+    private Thread searchThread;
+    // Counted down by stop; an infinite search waits on it before sending its best move, otherwise null
+    private CountDownLatch stopSignal;
+
+    /**
+     * @param in  where commands are read from
+     * @param out where responses are written to
+     */
+    public Uci(BufferedReader in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Answers commands until "quit" or the end of the input
+     *
+     * @throws IOException if the input can't be read
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!handle(line)) {
+                return;
+            }
+        }
+
+        // No stop can arrive any more, so an infinite search is stopped rather than waited for
+        if (stopSignal != null) {
+            stopSearch();
+        }
+        waitForSearch();
+    }
+
+    /**
+     * Carries out one command
+     *
+     * @param line the command and its arguments
+     * @return False if the command was "quit"
+     */
+    boolean handle(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        try {
+            switch (tokens[0]) {
+                case "uci" -> {
+                    send("id name " + NAME);
+                    send("id author " + AUTHOR);
+                    send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                    send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                    send("uciok");
+                }
+                case "isready" -> send("readyok");
+                case "ucinewgame" -> {
+                    stopSearch();
+                    table.clear();
+                    game = Fen.parse(Fen.STARTING_POSITION);
+                }
+                case "position" -> {
+                    stopSearch();
+                    game = parsePosition(tokens);
+                }
+                case "setoption" -> {
+                    stopSearch();
+                    setOption(tokens);
+                }
+                case "go" -> {
+                    stopSearch();
+                    go(tokens);
+                }
+                case "stop" -> stopSearch();
+                case "quit" -> {
+                    stopSearch();
+                    return false;
+                }
+                default -> {
+                    // The protocol says unknown commands are ignored, which includes blank lines
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            send("info string " + e.getMessage());
+        }
+        return true;
+    }
+
+    // position [startpos | fen <fields>] [moves <move>...]
+    private static ChessGame parsePosition(String[] tokens) {
+        int movesIndex = Arrays.asList(tokens).indexOf("moves");
+        int end = movesIndex < 0 ? tokens.length : movesIndex;
+
+        ChessGame position;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            position = Fen.parse(Fen.STARTING_POSITION);
+        } else if (tokens.length > 2 && tokens[1].equals("fen")) {
+            position = Fen.parse(String.join(" ", Arrays.copyOfRange(tokens, 2, end)));
+        } else {
+            throw new IllegalArgumentException("position needs startpos or fen");
+        }
+
+        MoveList moves = new MoveList();
+        for (int i=end+1; i<tokens.length; i++) {
+            moves.clear();
+            position.generateLegalMoves(moves);
+            position.makeMoveUnchecked(findMove(moves, tokens[i]));
+        }
+        return position;
+    }
+
+    private static int findMove(MoveList moves, String text) {
+        for (int i=0; i<moves.size(); i++) {
+            if (PackedMove.toLongAlgebraic(moves.get(i)).equals(text)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Illegal move: " + text);
+    }
+
+    // setoption name <name> [value <value>]; names may contain spaces and are matched case-insensitively
+    private void setOption(String[] tokens) {
+        int valueIndex = Arrays.asList(tokens).indexOf("value");
+        int nameEnd = valueIndex < 0 ? tokens.length : valueIndex;
+        if (tokens.length < 3 || !tokens[1].equals("name")) {
+            throw new IllegalArgumentException("setoption needs a name");
+        }
+        String name = String.join(" ", Arrays.copyOfRange(tokens, 2, nameEnd)).toLowerCase(Locale.ROOT);
+        String value = valueIndex < 0 ? "" : String.join(" ", Arrays.copyOfRange(tokens, valueIndex + 1, tokens.length));
+
+        switch (name) {
+            case "hash" -> table = new TranspositionTable(parseOption("Hash", value, 1, MAX_HASH_MB));
+            case "threads" -> threads = parseOption("Threads", value, 1, MAX_THREADS);
+            default -> throw new IllegalArgumentException("Unknown option: " + name);
+        }
+    }
+
+    private static int parseOption(String name, String value, int min, int max) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(name + " must be a number from " + min + " to " + max + ": " + value);
+    }
+
+    // go [depth n] [nodes n] [movetime ms] [wtime ms] [btime ms] [winc ms] [binc ms] [movestogo n] [infinite]
+    private void go(String[] tokens) {
+        int depth = 0;
+        long nodes = 0;
+        long moveTime = 0;
+        long[] clock = {-1, -1};
+        long[] increment = {0, 0};
+        int movesToGo = 0;
+        boolean infinite = false;
+        for (int i=1; i<tokens.length; i++) {
+            switch (tokens[i]) {
+                case "depth" -> depth = (int) parseCount(tokens, ++i);
+                case "nodes" -> nodes = parseCount(tokens, ++i);
+                case "movetime" -> moveTime = parseCount(tokens, ++i);
+                case "wtime" -> clock[0] = parseCount(tokens, ++i);
+                case "btime" -> clock[1] = parseCount(tokens, ++i);
+                case "winc" -> increment[0] = parseCount(tokens, ++i);
+                case "binc" -> increment[1] = parseCount(tokens, ++i);
+                case "movestogo" -> movesToGo = (int) parseCount(tokens, ++i);
+                case "infinite" -> infinite = true;
+                default -> {
+                    // ponder and searchmoves aren't supported
+                }
+            }
+        }
+
+        // A clock or move time is managed, stopping early once the best move settles; depth and
+        // node limits alone search until they're reached or stop arrives. With no limit at all, such
+        // as only the other team's clock, a GUI still expects a move, so only infinite waits for stop.
+        int side = game.getTeamTurn() == ChessGame.TeamColor.WHITE ? 0 : 1;
+        TimeManager timeManager = null;
+        if (moveTime > 0) {
+            timeManager = TimeManager.forMoveTime(moveTime);
+        } else if (clock[side] >= 0) {
+            timeManager = TimeManager.forClock(clock[side], increment[side], movesToGo, MOVE_OVERHEAD_MILLIS);
+        } else if (!infinite && depth == 0 && nodes == 0) {
+            timeManager = TimeManager.forMoveTime(DEFAULT_MOVE_TIME_MILLIS);
+        }
+        TimeManager budget = timeManager == null ? null : timeManager.withNodeCap(nodes);
+        SearchLimits limits = new SearchLimits(depth, nodes, 0);
+        int maxDepth = depth;
+
+        CountDownLatch waitForStop = infinite ? new CountDownLatch(1) : null;
+        stopSignal = waitForStop;
+
+        ParallelSearch parallelSearch = new ParallelSearch(game, threads, table);
+        parallelSearch.setIterationListener(result -> send(info(result)));
+        search = parallelSearch;
+        searchThread = new Thread(() -> {
+            SearchResult result = budget != null ? parallelSearch.search(budget, maxDepth) : parallelSearch.search(limits);
+            if (waitForStop != null) {
+                try {
+                    waitForStop.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            send("bestmove " + (result.bestMove() == PackedMove.NONE ? "0000" : PackedMove.toLongAlgebraic(result.bestMove())));
+        }, "uci-search");
+        searchThread.start();
+    }
+
+    private static long parseCount(String[] tokens, int index) {
+        try {
+            long value = Long.parseLong(tokens[index]);
+            if (value >= 0) {
+                return value;
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException ignored) {
+        }
+        throw new IllegalArgumentException("go " + tokens[index - 1] + " needs a non-negative number");
+    }
+
+    /**
+     * @param result a completed iteration
+     * @return The iteration as a UCI info line, with mates given in moves rather than centipawns
+     */
+    String info(SearchResult result) {
+        String score;
+        if (result.isMateScore()) {
+            int plies = Search.MATE - Math.abs(result.score());
+            score = "mate " + (result.score() > 0 ? (plies + 1) / 2 : -(plies / 2));
+        } else {
+            score = "cp " + result.score();
+        }
+        return "info depth " + result.depth() + " score " + score + " nodes " + result.nodes()
+            + " nps " + result.nodesPerSecond() + " time " + result.elapsedNanos() / 1_000_000
+            + " hashfull " + table.hashfull() + " pv " + result.pvText();
+    }
+
+    // A search clears earlier stop requests as it starts, so one sent before the thread got going
+    // would be lost; the request is repeated until the thread is done
+    private void stopSearch() {
+        if (stopSignal != null) {
+            stopSignal.countDown();
+        }
+        try {
+            while (searchThread != null && searchThread.isAlive()) {
+                search.stop();
+                searchThread.join(STOP_RETRY_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        waitForSearch();
+    }
+
+    private void waitForSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        try {
+            searchThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+        search = null;
+        stopSignal = null;
+    }
+
+    // The search thread and the command loop both write, so whole lines are written under a lock
+    private void send(String line) {
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        new Uci(new BufferedReader(new InputStreamReader(System.in)), System.out).run();
+    }
+}
@@ -0,0 +1,105 @@
+package chess;
+
+import com.google.gson.Gson;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardTests {
+
+    @Test
+    @DisplayName("Starting Board Occupancy")
+    void startingOccupancy() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        assertEquals(0x000000000000FFFFL, board.getOccupancy(ChessGame.TeamColor.WHITE));
+        assertEquals(0xFFFF000000000000L, board.getOccupancy(ChessGame.TeamColor.BLACK));
+        assertEquals(0x00FF000000000000L, board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        assertEquals(Bitboards.bit(4), board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+    }
+
+    @Test
+    @DisplayName("Bitboards Follow addPiece")
+    void addPieceUpdatesBitboards() {
+        ChessBoard board = new ChessBoard();
+        ChessPosition position = new ChessPosition(4, 3);
+        int square = Bitboards.squareOf(position);
+        assertEquals(0L, board.getOccupancy());
+
+        board.addPiece(position, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        assertEquals(Bitboards.bit(square), board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+
+        board.addPiece(position, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        assertEquals(0L, board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        assertEquals(Bitboards.bit(square), board.getOccupancy(ChessGame.TeamColor.BLACK));
+
+        board.addPiece(position, null);
+        assertEquals(0L, board.getOccupancy());
+    }
+
+    @Test
+    @DisplayName("Bitboards Rebuilt After Deserialization")
+    void deserializedBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        ChessBoard copy = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+        assertEquals(board, copy);
+        assertEquals(board.getOccupancy(), copy.getOccupancy());
+        assertEquals(
+            board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+            copy.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK)
+        );
+    }
+
+    @Test
+    @DisplayName("Leaper Masks")
+    void leaperMasks() {
+        assertEquals(2, Bitboards.popCount(Bitboards.KNIGHT_ATTACKS[Bitboards.squareOf(1, 1)]));
+        assertEquals(8, Bitboards.popCount(Bitboards.KNIGHT_ATTACKS[Bitboards.squareOf(4, 4)]));
+        assertEquals(3, Bitboards.popCount(Bitboards.KING_ATTACKS[Bitboards.squareOf(8, 8)]));
+        assertEquals(1, Bitboards.popCount(Bitboards.PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][Bitboards.squareOf(2, 1)]));
+        assertEquals(0, Bitboards.popCount(Bitboards.PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][Bitboards.squareOf(1, 5)]));
+    }
+
+    @Test
+    @DisplayName("Sliding Attack Lookups")
+    void slidingAttacks() {
+        int a1 = Bitboards.squareOf(1, 1);
+        int d4 = Bitboards.squareOf(4, 4);
+        assertEquals(14, Bitboards.popCount(SlidingAttacks.rookAttacks(a1, 0L)));
+        assertEquals(13, Bitboards.popCount(SlidingAttacks.bishopAttacks(d4, 0L)));
+        assertEquals(27, Bitboards.popCount(SlidingAttacks.queenAttacks(d4, 0L)));
+
+        // Blockers are attacked but nothing behind them is
+        long blockers = Bitboards.bit(Bitboards.squareOf(1, 3)) | Bitboards.bit(Bitboards.squareOf(3, 1));
+        long expected = Bitboards.bit(Bitboards.squareOf(1, 2)) | Bitboards.bit(Bitboards.squareOf(1, 3))
+            | Bitboards.bit(Bitboards.squareOf(2, 1)) | Bitboards.bit(Bitboards.squareOf(3, 1));
+        assertEquals(expected, SlidingAttacks.rookAttacks(a1, blockers));
+    }
+
+    @Test
+    @DisplayName("Square Attacked By Team")
+    void squareAttacked() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+
+        // Rook attacks up to and including the knight, but not beyond it
+        assertTrue(board.isSquareAttacked(new ChessPosition(8, 1), ChessGame.TeamColor.BLACK));
+        assertTrue(board.isSquareAttacked(new ChessPosition(1, 4), ChessGame.TeamColor.BLACK));
+        assertFalse(board.isSquareAttacked(new ChessPosition(1, 5), ChessGame.TeamColor.BLACK));
+
+        // Pawns only attack diagonally forward
+        assertTrue(board.isSquareAttacked(new ChessPosition(5, 5), ChessGame.TeamColor.WHITE));
+        assertFalse(board.isSquareAttacked(new ChessPosition(3, 6), ChessGame.TeamColor.WHITE));
+        assertFalse(board.isSquareAttacked(new ChessPosition(5, 4), ChessGame.TeamColor.WHITE));
+
+        // Knight on d1
+        assertTrue(board.isSquareAttacked(new ChessPosition(2, 2), ChessGame.TeamColor.WHITE));
+        assertFalse(board.isSquareAttacked(new ChessPosition(2, 2), ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,42 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CanonicalInstanceTests {
+
+    @Test
+    @DisplayName("Positions Are Shared")
+    void sharedPositions() {
+        assertSame(ChessPosition.of(3, 4), ChessPosition.of(3, 4));
+        assertSame(ChessPosition.of(3, 4), ChessPosition.of(Bitboards.squareOf(3, 4)));
+        assertEquals(new ChessPosition(3, 4), ChessPosition.of(3, 4));
+        assertEquals(new ChessPosition(3, 4).hashCode(), ChessPosition.of(3, 4).hashCode());
+
+        // Off-board positions still work, they just aren't shared
+        assertEquals(new ChessPosition(0, 9), ChessPosition.of(0, 9));
+    }
+
+    @Test
+    @DisplayName("Pieces Are Shared")
+    void sharedPieces() {
+        ChessPiece whiteQueen = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+        assertSame(whiteQueen, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN), whiteQueen);
+
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        assertSame(whiteQueen, board.getPiece(ChessPosition.of(1, 4)));
+    }
+
+    @Test
+    @DisplayName("Generated Moves Use Shared Positions")
+    void generatedMoves() {
+        ChessGame game = new ChessGame();
+        for (ChessMove move : game.legalMoves()) {
+            ChessPosition end = move.getEndPosition();
+            assertSame(ChessPosition.of(end.getRow(), end.getColumn()), end);
+        }
+    }
+}
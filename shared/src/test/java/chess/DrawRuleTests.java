@@ -0,0 +1,121 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DrawRuleTests {
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+
+        // Knights out and back twice: the start position is then seen for the third time
+        for (int i=0; i<2; i++) {
+            assertEquals(GameOutcome.IN_PROGRESS, game.getOutcome());
+            game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+
+            // The history has to survive the server storing and reloading the game between moves
+            game = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+            game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        }
+
+        assertEquals(GameOutcome.THREEFOLD_REPETITION, game.getOutcome());
+        assertTrue(game.getOutcome().isDraw());
+    }
+
+    @Test
+    @DisplayName("Only Reachable History Is Serialized")
+    void compactHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        // The pawn move cuts off everything before it, leaving the two knight moves' positions
+        JsonObject json = new Gson().toJsonTree(game).getAsJsonObject();
+        assertEquals(2, json.getAsJsonArray("keyHistory").size());
+        assertEquals(game, new Gson().fromJson(json, ChessGame.class));
+        assertNull(new Gson().fromJson("null", ChessGame.class));
+
+        // Games stored with the whole ring buffer still load with their history
+        JsonArray ring = new JsonArray();
+        for (int i=0; i<128; i++) {
+            ring.add(0L);
+        }
+        json.add("keyHistory", ring);
+        assertEquals(GameOutcome.IN_PROGRESS, new Gson().fromJson(json, ChessGame.class).getOutcome());
+    }
+
+    @Test
+    @DisplayName("Irreversible Move Clears Repetitions")
+    void irreversibleMove() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        assertEquals(4, game.getHalfmoveClock());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 1), new ChessPosition(3, 1), null));
+        assertEquals(0, game.getHalfmoveClock());
+        for (int i=0; i<2; i++) {
+            game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+            game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        }
+        assertEquals(GameOutcome.THREEFOLD_REPETITION, game.getOutcome());
+    }
+
+    @Test
+    @DisplayName("Fifty Move Rule")
+    void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = Fen.parse("4k3/8/8/8/8/8/4P3/R3K3 w - - 99 80");
+        assertEquals(GameOutcome.IN_PROGRESS, game.getOutcome());
+
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(1, 2), null));
+        assertEquals(GameOutcome.FIFTY_MOVE_RULE, game.getOutcome());
+
+        // Checkmate on the hundredth ply takes precedence
+        game = Fen.parse("7k/8/6K1/8/8/8/8/R7 w - - 99 80");
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null));
+        assertEquals(GameOutcome.CHECKMATE, game.getOutcome());
+    }
+
+    @Test
+    @DisplayName("Insufficient Material")
+    void insufficientMaterial() {
+        assertTrue(Fen.parse("4k3/8/8/8/8/8/8/4K3 w").hasInsufficientMaterial());
+        assertTrue(Fen.parse("4k3/8/8/8/8/8/8/4KN2 w").hasInsufficientMaterial());
+        assertTrue(Fen.parse("2b1k3/8/8/8/8/8/8/4KB2 w").hasInsufficientMaterial());
+        assertEquals(GameOutcome.INSUFFICIENT_MATERIAL, Fen.parse("4k3/8/8/8/8/8/8/4KB2 b").getOutcome());
+
+        assertFalse(Fen.parse("1b2k3/8/8/8/8/8/8/4KB2 w").hasInsufficientMaterial());
+        assertFalse(Fen.parse("4k3/8/8/8/8/8/8/4KNN1 w").hasInsufficientMaterial());
+        assertFalse(Fen.parse("4k3/8/8/8/8/8/4P3/4K3 w").hasInsufficientMaterial());
+        assertFalse(new ChessGame().hasInsufficientMaterial());
+    }
+
+    @Test
+    @DisplayName("Material Signature")
+    void materialSignature() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long signature = board.getMaterialSignature();
+        assertEquals(8, ChessBoard.getPieceCount(signature, ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        assertEquals(1, ChessBoard.getPieceCount(signature, ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+
+        board.addPiece(new ChessPosition(1, 4), null);
+        signature = board.getMaterialSignature();
+        assertEquals(0, ChessBoard.getPieceCount(signature, ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        assertEquals(2, ChessBoard.getPieceCount(signature, ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+    }
+}
@@ -0,0 +1,43 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameOutcomeTests {
+
+    @Test
+    @DisplayName("Outcome Follows Moves")
+    void outcomeFollowsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        assertEquals(GameOutcome.IN_PROGRESS, game.getOutcome());
+
+        // Fool's mate
+        game.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+        assertEquals(GameOutcome.IN_PROGRESS, game.getOutcome());
+
+        game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+        assertEquals(GameOutcome.CHECKMATE, game.getOutcome());
+        assertTrue(game.getOutcome().isGameOver());
+        assertFalse(game.getOutcome().isDraw());
+        assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Check And Stalemate")
+    void checkAndStalemate() {
+        ChessGame game = Fen.parse("7k/8/6Q1/8/8/8/8/K7 b - - 0 1");
+        assertEquals(GameOutcome.STALEMATE, game.getOutcome());
+        assertTrue(game.getOutcome().isDraw());
+
+        // Editing the board through getBoard is picked up without any explicit invalidation
+        game.getBoard().addPiece(new ChessPosition(6, 7), null);
+        game.getBoard().addPiece(new ChessPosition(6, 8), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        assertEquals(GameOutcome.CHECK, game.getOutcome());
+
+        game.setBoard(Fen.parse("7k/8/6Q1/8/8/8/8/K7 b - - 0 1").getBoard());
+        assertEquals(GameOutcome.STALEMATE, game.getOutcome());
+    }
+}
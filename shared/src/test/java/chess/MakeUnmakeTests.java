@@ -0,0 +1,86 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MakeUnmakeTests {
+
+    @Test
+    @DisplayName("Unmake Restores Every Move From Start")
+    void unmakeRestoresBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard original = new ChessBoard();
+        original.resetBoard();
+
+        long occupancy = board.getOccupancy();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            long pieces = board.getOccupancy(color);
+            while (pieces != 0) {
+                int square = Bitboards.lsb(pieces);
+                ChessPosition position = new ChessPosition(Bitboards.rowOf(square), Bitboards.columnOf(square));
+                for (ChessMove move : board.getPiece(position).pieceMoves(board, position)) {
+                    long undo = board.makeMove(move);
+                    assertNull(board.getPiece(position));
+                    board.unmakeMove(undo);
+                    assertEquals(original, board);
+                    assertEquals(occupancy, board.getOccupancy());
+                }
+                pieces = Bitboards.clearLsb(pieces);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Unmake Restores Capture and Promotion")
+    void unmakeCapturePromotion() {
+        ChessBoard board = new ChessBoard();
+        ChessPosition start = new ChessPosition(7, 2);
+        ChessPosition end = new ChessPosition(8, 1);
+        board.addPiece(start, new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(end, new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+
+        long undo = board.makeMove(new ChessMove(start, end, ChessPiece.PieceType.KNIGHT));
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT), board.getPiece(end));
+        assertEquals(0L, board.getOccupancy(ChessGame.TeamColor.BLACK));
+
+        board.unmakeMove(undo);
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN), board.getPiece(start));
+        assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK), board.getPiece(end));
+        assertEquals(Bitboards.bit(Bitboards.squareOf(end)), board.getOccupancy(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Unmake Restores Castling And En Passant State")
+    void unmakeRestoresGameState() {
+        ChessGame game = Fen.parse("r3k2r/8/8/8/1pP5/8/8/R3K2R b KQkq c3 0 1");
+        String fen = Fen.toFen(game);
+        long key = game.getPositionKey();
+
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        assertNotEquals(PackedMove.NONE, moves.find(PackedMove.of(Bitboards.squareOf(4, 2), Bitboards.squareOf(3, 3))));
+        assertNotEquals(PackedMove.NONE, moves.find(PackedMove.of(Bitboards.squareOf(8, 5), Bitboards.squareOf(8, 7))));
+
+        for (int i=0; i<moves.size(); i++) {
+            long undo = game.makeMoveUnchecked(moves.get(i));
+            game.unmakeMove(undo);
+            assertEquals(fen, Fen.toFen(game));
+            assertEquals(key, game.getPositionKey());
+        }
+    }
+
+    @Test
+    @DisplayName("Rook Moves And Captures Lose Castling Rights")
+    void castlingRightsLost() throws InvalidMoveException {
+        ChessGame game = Fen.parse("rn2k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+
+        // Rook takes rook: white loses queenside, black loses queenside
+        game.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null));
+        assertEquals("Rn2k2r/8/8/8/8/8/8/4K2R b Kk - 0 1", Fen.toFen(game));
+
+        game.makeMove(new ChessMove(new ChessPosition(8, 5), new ChessPosition(8, 7), null));
+        assertEquals("Rn3rk1/8/8/8/8/8/8/4K2R w K - 1 2", Fen.toFen(game));
+    }
+}
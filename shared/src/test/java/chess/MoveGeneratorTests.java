@@ -0,0 +1,189 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveGeneratorTests {
+
+    @Test
+    @DisplayName("Legal Generator Matches Make-and-Test")
+    void matchesMakeAndTest() {
+        Random random = new Random(240);
+
+        for (int game=0; game<200; game++) {
+            ChessBoard board = new ChessBoard();
+            board.resetBoard();
+            ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+
+            for (int ply=0; ply<120; ply++) {
+                HashSet<ChessMove> generated = new HashSet<>();
+                MoveGenerator.generateLegalMoves(board, turn, generated);
+                assertEquals(movesByTrial(board, turn), generated, "Mismatch on " + board);
+                assertEquals(!generated.isEmpty(), MoveGenerator.hasLegalMove(board, turn), "Mismatch on " + board);
+
+                if (generated.isEmpty()) {
+                    break;
+                }
+                ArrayList<ChessMove> choices = new ArrayList<>(generated);
+                choices.sort((first, second) -> first.toString().compareTo(second.toString()));
+                board.makeMove(choices.get(random.nextInt(choices.size())));
+                turn = turn == ChessGame.TeamColor.WHITE ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Any Legal Move Check")
+    void hasLegalMove() {
+        String[] noMoves = {
+            "R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1",  // back rank mate
+            "k7/8/1Q6/8/8/8/8/7K b - - 0 1",      // stalemate
+            "8/8/8/8/8/1k6/8/KB5r w - - 0 1",     // stalemate with the only other piece pinned on the rank
+            "7k/6Q1/6K1/8/8/8/8/8 b - - 0 1"      // mate by a protected queen
+        };
+        String[] someMoves = {
+            Fen.STARTING_POSITION,
+            "7k/8/5N2/8/3pP3/3B4/8/K5R1 b - e3 0 1", // only en passant
+            "k7/8/1Q6/8/8/8/p7/7K b - - 0 1",        // stalemated king, but a pawn can push
+            "R5k1/5ppp/8/8/8/8/1r6/6K1 b - - 0 1"    // back rank check the rook can block
+        };
+
+        for (String fen : noMoves) {
+            assertFalse(hasLegalMove(Fen.parse(fen)), fen);
+        }
+        for (String fen : someMoves) {
+            assertTrue(hasLegalMove(Fen.parse(fen)), fen);
+        }
+    }
+
+    private static boolean hasLegalMove(ChessGame game) {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        int state = GameState.pack(game.getCastlingRights(), game.getEnPassantSquare());
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        boolean any = MoveGenerator.hasLegalMove(game.getBoard(), turn, state);
+        assertEquals(!moves.isEmpty(), any);
+        return any;
+    }
+
+    @Test
+    @DisplayName("Pinned Piece Stays On Pin Ray")
+    void pinnedPiece() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(3, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        board.addPiece(new ChessPosition(6, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+
+        HashSet<ChessMove> bishopMoves = new HashSet<>();
+        MoveGenerator.generateLegalMoves(board, ChessGame.TeamColor.WHITE,
+            Bitboards.bit(Bitboards.squareOf(3, 3)), bishopMoves);
+
+        ChessPosition bishop = new ChessPosition(3, 3);
+        HashSet<ChessMove> expected = new HashSet<>();
+        expected.add(new ChessMove(bishop, new ChessPosition(2, 2), null));
+        expected.add(new ChessMove(bishop, new ChessPosition(4, 4), null));
+        expected.add(new ChessMove(bishop, new ChessPosition(5, 5), null));
+        expected.add(new ChessMove(bishop, new ChessPosition(6, 6), null));
+        assertEquals(expected, bishopMoves);
+    }
+
+    @Test
+    @DisplayName("Packed Moves Round Trip")
+    void packedMoves() {
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 2), ChessPiece.PieceType.KNIGHT);
+        int packed = PackedMove.fromChessMove(promotion);
+        assertEquals(promotion, PackedMove.toChessMove(packed));
+        assertEquals(ChessPiece.PieceType.KNIGHT, PackedMove.promotion(packed));
+        assertFalse(PackedMove.isCapture(packed));
+
+        int capture = PackedMove.of(Bitboards.squareOf(7, 1), Bitboards.squareOf(8, 2),
+            ChessPiece.PieceType.KNIGHT, PackedMove.CAPTURE);
+        assertTrue(PackedMove.isCapture(capture));
+        assertEquals(packed, PackedMove.withoutFlags(capture));
+    }
+
+    @Test
+    @DisplayName("Move List Flags From Start")
+    void moveListFromStart() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, ChessGame.TeamColor.WHITE, moves);
+        assertEquals(20, moves.size());
+
+        int doublePushes = 0;
+        for (int i=0; i<moves.size(); i++) {
+            if ((PackedMove.flags(moves.get(i)) & PackedMove.DOUBLE_PUSH) != 0) {
+                doublePushes++;
+            }
+        }
+        assertEquals(8, doublePushes);
+
+        int e2e4 = PackedMove.fromChessMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertEquals(PackedMove.DOUBLE_PUSH, PackedMove.flags(moves.find(e2e4)));
+
+        moves.clear();
+        assertTrue(moves.isEmpty());
+    }
+
+    // The slow reference: every pseudo-legal move that doesn't leave the king attacked
+    private static HashSet<ChessMove> movesByTrial(ChessBoard board, ChessGame.TeamColor turn) {
+        HashSet<ChessMove> moves = new HashSet<>();
+        long pieces = board.getOccupancy(turn);
+        while (pieces != 0) {
+            int square = Bitboards.lsb(pieces);
+            ChessPosition position = new ChessPosition(Bitboards.rowOf(square), Bitboards.columnOf(square));
+            for (ChessMove move : board.getPiece(position).pieceMoves(board, position)) {
+                long undo = board.makeMove(move);
+                if (!ChessGame.arbitraryBoardCheck(turn, board)) {
+                    moves.add(move);
+                }
+                board.unmakeMove(undo);
+            }
+            pieces = Bitboards.clearLsb(pieces);
+        }
+        return moves;
+    }
+
+    @Test
+    @DisplayName("Single Move Legality Matches Generator")
+    void isLegalMatchesGenerator() {
+        String[] positions = {
+            Fen.STARTING_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "8/8/8/KPp4r/8/8/8/6k1 w - c6 0 1"
+        };
+        ChessPiece.PieceType[] promotions = {null, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.KING};
+
+        for (String fen : positions) {
+            ChessGame game = Fen.parse(fen);
+            String before = Fen.toFen(game);
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                Collection<ChessMove> legal = game.legalMoves(color);
+                for (int from=0; from<64; from++) {
+                    ChessPiece piece = game.getBoard().getPiece(from);
+                    if (piece == null || piece.getTeamColor() != color) {
+                        continue;
+                    }
+                    for (int to=0; to<64; to++) {
+                        for (ChessPiece.PieceType promotion : promotions) {
+                            ChessMove move = new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotion);
+                            assertEquals(legal.contains(move), game.isLegal(move), move + " in " + fen);
+                        }
+                    }
+                }
+            }
+            assertEquals(before, Fen.toFen(game));
+        }
+    }
+}
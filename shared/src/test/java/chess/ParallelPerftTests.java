@@ -0,0 +1,47 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelPerftTests {
+
+    @Test
+    @DisplayName("Matches Sequential Perft")
+    void matchesSequential() {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        assertEquals(Perft.perft(game, 4), ParallelPerft.perft(game, 4));
+        assertEquals(1, ParallelPerft.perft(game, 0));
+        assertEquals(20, ParallelPerft.perft(game, 1));
+    }
+
+    @Test
+    @DisplayName("Cached Counts")
+    void cachedCounts() {
+        ChessGame game = Fen.parse("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1");
+        PerftCache cache = new PerftCache(16);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(182838, ParallelPerft.perft(game, 4, pool, cache));
+            // A second run is answered from the cache and must agree
+            assertEquals(182838, ParallelPerft.perft(game, 4, pool, cache));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Bulk Positions")
+    void bulkPositions() {
+        ChessGame start = Fen.parse(Fen.STARTING_POSITION);
+        ChessGame endgame = Fen.parse("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+        ChessBoard before = new ChessBoard(start.getBoard());
+
+        long[] counts = ParallelPerft.perft(List.of(start, endgame), 3, ForkJoinPool.commonPool(), new PerftCache(1));
+        assertArrayEquals(new long[] {8902, Perft.perft(endgame, 3)}, counts);
+        assertEquals(before, start.getBoard());
+    }
+}
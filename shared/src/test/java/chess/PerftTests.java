@@ -0,0 +1,137 @@
+package chess;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Starting Position")
+    void startingPosition() {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        assertEquals(20, Perft.perft(game, 1));
+        assertEquals(400, Perft.perft(game, 2));
+        assertEquals(8902, Perft.perft(game, 3));
+        assertEquals(197281, Perft.perft(game, 4));
+        assertEquals(4865609, Perft.perft(game, 5));
+    }
+
+    @Test
+    @DisplayName("Kiwipete")
+    void kiwipete() {
+        ChessGame game = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        assertEquals(48, Perft.perft(game, 1));
+        assertEquals(2039, Perft.perft(game, 2));
+        assertEquals(97862, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Castling Rights Lost To Captures")
+    void position4() {
+        ChessGame game = Fen.parse("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1");
+        assertEquals(6, Perft.perft(game, 1));
+        assertEquals(264, Perft.perft(game, 2));
+        assertEquals(9467, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Promotion With Check")
+    void position5() {
+        ChessGame game = Fen.parse("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+        assertEquals(44, Perft.perft(game, 1));
+        assertEquals(1486, Perft.perft(game, 2));
+        assertEquals(62379, Perft.perft(game, 3));
+    }
+
+    @Test
+    @DisplayName("Rook And Pawn Endgame")
+    void rookAndPawnEndgame() {
+        // En passant captures that would expose the king along the row have to be left out
+        ChessGame game = Fen.parse("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+        assertEquals(14, Perft.perft(game, 1));
+        assertEquals(191, Perft.perft(game, 2));
+        assertEquals(2812, Perft.perft(game, 3));
+        assertEquals(43238, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Promotions")
+    void promotions() {
+        ChessGame game = Fen.parse("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1");
+        assertEquals(24, Perft.perft(game, 1));
+        assertEquals(496, Perft.perft(game, 2));
+        assertEquals(9483, Perft.perft(game, 3));
+        assertEquals(182838, Perft.perft(game, 4));
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Perft")
+    void divide() {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        Map<ChessMove, Long> counts = Perft.divide(game, 3);
+
+        assertEquals(20, counts.size());
+        assertEquals(8902, counts.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(Fen.STARTING_POSITION, Fen.toFen(game));
+    }
+
+    @Test
+    @DisplayName("FEN Round Trip")
+    void fenRoundTrip() {
+        String fen = "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1";
+        ChessGame game = Fen.parse(fen);
+
+        assertEquals(fen, Fen.toFen(game));
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse("8/8/8 w"));
+
+        String kiwipete = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+        assertEquals(kiwipete, Fen.toFen(Fen.parse(kiwipete)));
+
+        // The en passant square is only kept when a capture is actually possible
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", Fen.toFen(Fen.parse("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1")));
+        assertEquals("4k3/8/8/3p4/8/8/8/4K3 w - - 0 1", Fen.toFen(Fen.parse("4k3/8/8/3p4/8/8/8/4K3 w - d6 0 1")));
+    }
+
+    @Test
+    @DisplayName("FEN Without Trailing Fields")
+    void fenTruncated() {
+        // Castling rights given without the en passant and clock fields still count
+        assertEquals("r3k2r/8/8/8/8/8/8/R3K2R b Kq - 0 1", Fen.toFen(Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R b Kq")));
+        assertEquals("r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1", Fen.toFen(Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w -")));
+        // With only placement and turn, rights are inferred from the placement
+        assertEquals("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", Fen.toFen(Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w")));
+    }
+
+    @Test
+    @DisplayName("FEN Keeps The Move Number")
+    void fenMoveNumber() throws InvalidMoveException {
+        String fen = "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3";
+        ChessGame game = Fen.parse(fen);
+        assertEquals(fen, Fen.toFen(game));
+        assertEquals(3, game.getFullmoveNumber());
+
+        // The number goes up after black's move only, and back down when it's taken back
+        game.makeMove(new ChessMove(new ChessPosition(1, 6), new ChessPosition(4, 3), null));
+        assertEquals(3, game.getFullmoveNumber());
+        long undo = game.makeMoveUnchecked(firstMove(game));
+        assertEquals(4, game.getFullmoveNumber());
+        game.unmakeMove(undo);
+        assertEquals(3, game.getFullmoveNumber());
+
+        // Counting starts from a position with black to move too
+        ChessGame black = Fen.parse("4k3/8/8/8/8/8/8/4K3 b - - 0 40");
+        black.makeMoveUnchecked(firstMove(black));
+        assertEquals(41, black.getFullmoveNumber());
+        assertTrue(Fen.toFen(black).endsWith(" 1 41"));
+    }
+
+    private static int firstMove(ChessGame game) {
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        return moves.get(0);
+    }
+}
@@ -0,0 +1,100 @@
+package chess;
+
+import engine.Search;
+import engine.SearchLimits;
+import engine.SearchResult;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablebaseTests {
+
+    @TempDir
+    static Path directory;
+
+    private static Tablebase tablebase;
+
+    @BeforeAll
+    static void generate() throws IOException {
+        // Longest mates are 10, 16 and 28 moves, from the side to move
+        assertEquals(19, TablebaseGenerator.generate("KQvK", directory, ForkJoinPool.commonPool()));
+        assertEquals(31, TablebaseGenerator.generate("KRvK", directory, ForkJoinPool.commonPool()));
+        assertEquals(55, TablebaseGenerator.generate("KPvK", directory, ForkJoinPool.commonPool()));
+        tablebase = Tablebase.open(directory);
+    }
+
+    @AfterAll
+    static void close() throws IOException {
+        tablebase.close();
+    }
+
+    @Test
+    @DisplayName("Mate In One And Mated")
+    void mates() {
+        assertEquals(new Tablebase.Result(1, 1), tablebase.probe(Fen.parse("7k/8/6K1/8/8/8/8/1Q6 w - - 0 1")));
+        assertEquals(new Tablebase.Result(-1, 0), tablebase.probe(Fen.parse("Q6k/8/6K1/8/8/8/8/8 b - - 0 1")));
+    }
+
+    @Test
+    @DisplayName("Stalemate And Lost Pawn Are Draws")
+    void draws() {
+        assertTrue(tablebase.probe(Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1")).isDraw());
+        assertTrue(tablebase.probe(Fen.parse("8/8/8/8/8/8/3kP3/7K b - - 0 1")).isDraw());
+    }
+
+    @Test
+    @DisplayName("Pawn Promotes Into A Win")
+    void promotion() {
+        Tablebase.Result result = tablebase.probe(Fen.parse("8/4P3/8/8/8/8/k7/4K3 w - - 0 1"));
+        assertTrue(result.isWin());
+        assertTrue(result.pliesToMate() > 1);
+    }
+
+    @Test
+    @DisplayName("Black As The Stronger Side")
+    void flippedColors() {
+        assertEquals(new Tablebase.Result(1, 1), tablebase.probe(Fen.parse("1q6/8/8/8/8/6k1/8/7K b - - 0 1")));
+    }
+
+    @Test
+    @DisplayName("Positions Without A Table")
+    void notCovered() {
+        assertNull(tablebase.probe(Fen.parse(Fen.STARTING_POSITION)));
+        assertNull(tablebase.probe(Fen.parse("4k3/8/8/8/8/8/8/R3K3 w Q - 0 1")));
+        assertNull(tablebase.probe(Fen.parse("4k3/8/8/8/8/8/8/3BK3 w - - 0 1")));
+    }
+
+    @Test
+    @DisplayName("Depends On Smaller Tables")
+    void missingSmallerTable(@TempDir Path empty) {
+        assertThrows(IllegalStateException.class,
+            () -> TablebaseGenerator.generate("KQvKR", empty, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Table Files")
+    void badFile(@TempDir Path other) throws IOException {
+        Files.write(other.resolve("KQvK" + Tablebase.EXTENSION), new byte[16]);
+        assertThrows(IOException.class, () -> Tablebase.open(other));
+    }
+
+    @Test
+    @DisplayName("Search Reads Mates From The Tablebase")
+    void search() {
+        ChessGame game = Fen.parse("8/8/8/4k3/8/8/8/R3K3 w - - 0 1");
+        Search search = new Search(game);
+        search.setTablebase(tablebase);
+        SearchResult result = search.search(SearchLimits.depth(2));
+
+        // Far too deep to find at depth 2 without the table
+        assertTrue(result.isMateScore());
+        assertTrue(result.score() > 0);
+    }
+}
@@ -0,0 +1,78 @@
+package chess;
+
+import com.google.gson.Gson;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Transpositions Share a Key")
+    void transpositionsMatch() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        first.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        first.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        first.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+
+        ChessGame second = new ChessGame();
+        second.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        second.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        second.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        assertEquals(first, second);
+        assertEquals(first.getPositionKey(), second.getPositionKey());
+        assertNotEquals(new ChessGame().getPositionKey(), first.getPositionKey());
+    }
+
+    @Test
+    @DisplayName("Incremental Key Matches Fresh Board")
+    void incrementalMatchesFresh() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long startKey = board.getZobristKey();
+
+        long undo = board.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessBoard rebuilt = new Gson().fromJson(new Gson().toJson(board), ChessBoard.class);
+        assertEquals(rebuilt.getZobristKey(), board.getZobristKey());
+        assertNotEquals(startKey, board.getZobristKey());
+
+        board.unmakeMove(undo);
+        assertEquals(startKey, board.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Side To Move Changes Key")
+    void sideToMove() {
+        ChessGame game = new ChessGame();
+        long whiteKey = game.getPositionKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        assertEquals(whiteKey ^ Zobrist.blackToMove(), game.getPositionKey());
+    }
+
+    @Test
+    @DisplayName("Equal Games Hash Equally")
+    void equalGamesHashEqually() throws InvalidMoveException {
+        // Walking the kings out and back loses castling rights; the knights' round trip keeps them
+        ChessGame kings = new ChessGame();
+        kings.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        kings.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        kings.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        kings.makeMove(new ChessMove(new ChessPosition(8, 5), new ChessPosition(7, 5), null));
+        kings.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(1, 5), null));
+        kings.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(8, 5), null));
+
+        ChessGame knights = new ChessGame();
+        knights.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        knights.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        knights.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        knights.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        knights.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+        knights.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+
+        assertEquals(kings, knights);
+        assertNotEquals(kings.getPositionKey(), knights.getPositionKey());
+        assertEquals(kings.hashCode(), knights.hashCode());
+    }
+}
@@ -0,0 +1,79 @@
+package engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.PieceSquareTables;
+import com.google.gson.Gson;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationTests {
+
+    @Test
+    @DisplayName("Starting Position Is Balanced")
+    void startingPosition() {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        assertEquals(0, Evaluation.evaluate(game));
+        assertEquals(PieceSquareTables.MAX_PHASE, game.getBoard().getPhase());
+    }
+
+    @Test
+    @DisplayName("Mirrored Positions Score The Same")
+    void mirroredPositions() {
+        ChessGame white = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        ChessGame black = Fen.parse("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+        assertEquals(Evaluation.evaluate(white), Evaluation.evaluate(black));
+    }
+
+    @Test
+    @DisplayName("Endgame Scores Take Over Without Pieces")
+    void endgameBlend() {
+        ChessGame game = Fen.parse("8/8/4k3/8/8/4K3/4P3/8 w - - 0 1");
+        int score = game.getBoard().getPieceSquareScore();
+        assertEquals(0, game.getBoard().getPhase());
+        assertEquals(PieceSquareTables.endgame(score), Evaluation.evaluate(game));
+    }
+
+    @Test
+    @DisplayName("Packed Scores Add As Pairs")
+    void packedScores() {
+        int score = PieceSquareTables.pack(-40, 25) + PieceSquareTables.pack(15, -70);
+        assertEquals(-25, PieceSquareTables.middlegame(score));
+        assertEquals(-45, PieceSquareTables.endgame(score));
+    }
+
+    @Test
+    @DisplayName("Incremental Scores Match A Rebuild")
+    void incrementalMatchesRebuild() {
+        ChessGame game = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        int before = game.getBoard().getPieceSquareScore();
+
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        for (int i=0; i<moves.size(); i++) {
+            long undo = game.makeMoveUnchecked(moves.get(i));
+            MoveList replies = new MoveList();
+            game.generateLegalMoves(replies);
+            for (int j=0; j<replies.size(); j++) {
+                long replyUndo = game.makeMoveUnchecked(replies.get(j));
+                assertMatchesRebuild(game.getBoard());
+                game.unmakeMove(replyUndo);
+            }
+            assertMatchesRebuild(game.getBoard());
+            game.unmakeMove(undo);
+        }
+        assertEquals(before, game.getBoard().getPieceSquareScore());
+    }
+
+    // A deserialized board has no accumulators yet, so it computes them from the squares
+    private static void assertMatchesRebuild(ChessBoard board) {
+        Gson gson = new Gson();
+        ChessBoard rebuilt = gson.fromJson(gson.toJson(board), ChessBoard.class);
+        assertEquals(rebuilt.getPieceSquareScore(), board.getPieceSquareScore());
+        assertEquals(rebuilt.getPhase(), board.getPhase());
+    }
+}
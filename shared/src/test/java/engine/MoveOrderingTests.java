@@ -0,0 +1,82 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.PackedMove;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveOrderingTests {
+
+    // White can take the queen with the pawn or the queen, or the pawn with the queen
+    private static final String CAPTURES = "4k3/8/8/3q4/2P1p3/8/8/3QK3 w - - 0 1";
+
+    @Test
+    @DisplayName("Captures By Most Valuable Victim, Least Valuable Attacker")
+    void mvvLva() {
+        ChessGame game = Fen.parse(CAPTURES);
+        List<String> order = order(game, new MoveOrdering(), PackedMove.NONE);
+
+        assertEquals(List.of("c4d5", "d1d5"), order.subList(0, 2));
+        assertTrue(order.indexOf("d1d5") < order.indexOf("d1e2"));
+    }
+
+    @Test
+    @DisplayName("Table Move Comes First")
+    void tableMoveFirst() {
+        ChessGame game = Fen.parse(CAPTURES);
+        int tableMove = find(game, "e1f2");
+        List<String> order = order(game, new MoveOrdering(), tableMove);
+
+        assertEquals("e1f2", order.get(0));
+        assertEquals("c4d5", order.get(1));
+    }
+
+    @Test
+    @DisplayName("Killers Follow Captures And History Orders Quiet Moves")
+    void killersAndHistory() {
+        ChessGame game = Fen.parse(CAPTURES);
+        MoveOrdering ordering = new MoveOrdering();
+        ordering.recordCutoff(game.getBoard(), find(game, "d1h5"), 0, 3);
+        ordering.recordCutoff(game.getBoard(), find(game, "e1f1"), 1, 6);
+
+        // d1h5 is this ply's killer; e1f1 only has history here
+        List<String> order = order(game, ordering, PackedMove.NONE);
+        int captures = 2;
+        assertEquals("d1h5", order.get(captures));
+        assertEquals("e1f1", order.get(captures + 1));
+
+        // Captures never become killers
+        ordering.recordCutoff(game.getBoard(), find(game, "c4d5"), 2, 3);
+        assertEquals("c4d5", order(game, ordering, PackedMove.NONE).get(0));
+    }
+
+    private static List<String> order(ChessGame game, MoveOrdering ordering, int tableMove) {
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        ordering.score(game.getBoard(), moves, 0, tableMove);
+
+        List<String> order = new ArrayList<>();
+        for (int i=0; i<moves.size(); i++) {
+            order.add(PackedMove.toLongAlgebraic(ordering.next(moves, 0, i)));
+        }
+        return order;
+    }
+
+    private static int find(ChessGame game, String text) {
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        for (int i=0; i<moves.size(); i++) {
+            if (PackedMove.toLongAlgebraic(moves.get(i)).equals(text)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Not a legal move: " + text);
+    }
+}
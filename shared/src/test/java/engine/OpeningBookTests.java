@@ -0,0 +1,137 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.PackedMove;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpeningBookTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Looks Up Weighted Moves")
+    void lookup() throws IOException {
+        ChessGame start = Fen.parse(Fen.STARTING_POSITION);
+        long key = OpeningBook.polyglotKey(start);
+        Path path = writeBook(new long[][] {
+            {key - 1, 0x0000, 5},
+            {key, encode(start, "d2d4"), 1},
+            {key, encode(start, "e2e4"), 3},
+            {key, 0x0FFF, 9}, // h8h8 is never legal, so it's skipped
+            {key + 1, 0x0000, 5}
+        });
+
+        try (OpeningBook book = OpeningBook.open(path)) {
+            assertEquals(5, book.size());
+            List<OpeningBook.Entry> entries = book.lookup(start);
+            assertEquals(2, entries.size());
+            assertEquals("e2e4", PackedMove.toLongAlgebraic(entries.get(0).move()));
+            assertEquals(3, entries.get(0).weight());
+            assertEquals("d2d4", PackedMove.toLongAlgebraic(entries.get(1).move()));
+
+            int move = book.pickMove(start, new Random(1));
+            assertTrue(move == entries.get(0).move() || move == entries.get(1).move());
+        }
+    }
+
+    @Test
+    @DisplayName("Position Not In Book")
+    void notInBook() throws IOException {
+        ChessGame start = Fen.parse(Fen.STARTING_POSITION);
+        Path path = writeBook(new long[][] {{OpeningBook.polyglotKey(start) + 1, 0x0000, 1}});
+
+        try (OpeningBook book = OpeningBook.open(path)) {
+            assertTrue(book.lookup(start).isEmpty());
+            assertEquals(PackedMove.NONE, book.pickMove(start, new Random(1)));
+        }
+    }
+
+    @Test
+    @DisplayName("Matches Polyglot Reference Keys")
+    void polyglotKeys() {
+        // Keys from the Polyglot book format specification, covering pieces, lost castling rights,
+        // en passant files with and without a pawn to capture, and both turns
+        assertPolyglotKey(0x463B96181691FC9CL, "");
+        assertPolyglotKey(0x823C9B50FD114196L, "e2e4");
+        assertPolyglotKey(0x0756B94461C50FB0L, "e2e4 d7d5");
+        assertPolyglotKey(0x662FAFB965DB29D4L, "e2e4 d7d5 e4e5");
+        assertPolyglotKey(0x22A48B5A8E47FF78L, "e2e4 d7d5 e4e5 f7f5");
+        assertPolyglotKey(0x652A607CA3F242C1L, "e2e4 d7d5 e4e5 f7f5 e1e2");
+        assertPolyglotKey(0x00FDD303C946BDD9L, "e2e4 d7d5 e4e5 f7f5 e1e2 e8f7");
+        assertPolyglotKey(0x3C8123EA7B067637L, "a2a4 b7b5 h2h4 b5b4 c2c4");
+        assertPolyglotKey(0x5C3F9B829B279560L, "a2a4 b7b5 h2h4 b5b4 c2c4 b4c3 a1a3");
+    }
+
+    @Test
+    @DisplayName("Castling Is Written As King Takes Rook")
+    void castlingEncoding() {
+        ChessGame game = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        // e1h1: to file 7, to row 0, from file 4, from row 0
+        assertEquals(7 | 4 << 6, encode(game, "e1g1"));
+        // e1a1
+        assertEquals(4 << 6, encode(game, "e1c1"));
+    }
+
+    @Test
+    @DisplayName("Rejects Files That Aren't Books")
+    void rejectsBadFile() throws IOException {
+        Path path = directory.resolve("bad.bin");
+        Files.write(path, new byte[17]);
+        assertThrows(IOException.class, () -> OpeningBook.open(path));
+    }
+
+    // Each row is key, Polyglot move, weight; entries are sorted by unsigned key as in a real book
+    private Path writeBook(long[][] rows) throws IOException {
+        long[][] sorted = rows.clone();
+        Arrays.sort(sorted, (a, b) -> Long.compareUnsigned(a[0], b[0]));
+
+        ByteBuffer buffer = ByteBuffer.allocate(sorted.length * 16);
+        for (long[] row : sorted) {
+            buffer.putLong(row[0]).putShort((short) row[1]).putShort((short) row[2]).putInt(0);
+        }
+        Path path = directory.resolve("book.bin");
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    // Plays the moves from the starting position, so en passant squares are set as in a game
+    private static void assertPolyglotKey(long expected, String moves) {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        for (String text : moves.split(" ")) {
+            if (!text.isEmpty()) {
+                game.makeMoveUnchecked(find(game, text));
+            }
+        }
+        assertEquals(expected, OpeningBook.polyglotKey(game), moves);
+    }
+
+    private static int encode(ChessGame game, String text) {
+        return OpeningBook.encodeMove(find(game, text));
+    }
+
+    private static int find(ChessGame game, String text) {
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        for (int i=0; i<moves.size(); i++) {
+            if (PackedMove.toLongAlgebraic(moves.get(i)).equals(text)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Not a legal move: " + text);
+    }
+}
@@ -0,0 +1,63 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Fen;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("Finds Mate With Helper Threads")
+    void mateWithHelpers() {
+        ChessGame game = Fen.parse("k7/8/2K5/8/8/8/8/7R w - - 0 1");
+        SearchResult result = new ParallelSearch(game, 4).search(SearchLimits.depth(5));
+
+        // Table cutoffs from the helpers can cut the line short, but never the score
+        assertEquals(Search.MATE - 3, result.score());
+        assertTrue(result.pv().length >= 1);
+    }
+
+    @Test
+    @DisplayName("Reports Every Thread")
+    void reportsEveryThread() {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        ParallelSearch search = new ParallelSearch(game, 3, new TranspositionTable(4));
+        SearchResult result = search.search(SearchLimits.depth(5));
+
+        List<SearchResult> threadResults = search.getThreadResults();
+        assertEquals(3, search.getThreadCount());
+        assertEquals(3, threadResults.size());
+        assertEquals(5, threadResults.get(0).depth());
+
+        long nodes = 0;
+        for (SearchResult threadResult : threadResults) {
+            assertNotNull(threadResult);
+            nodes += threadResult.nodes();
+        }
+        assertEquals(nodes, result.nodes());
+        assertEquals(threadResults.get(0).bestMove(), result.bestMove());
+    }
+
+    @Test
+    @DisplayName("Helpers Stop With The Main Thread")
+    void helpersStopWithMain() {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        ParallelSearch search = new ParallelSearch(game, 4, new TranspositionTable(4));
+
+        // Helpers have no node limit of their own, so they only finish because the main thread did
+        SearchResult result = search.search(SearchLimits.nodes(20000));
+        assertTrue(result.nodes() > 0);
+        assertEquals(4, search.getThreadResults().size());
+    }
+
+    @Test
+    @DisplayName("Needs At Least One Thread")
+    void needsAThread() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(new ChessGame(), 0));
+    }
+}
@@ -0,0 +1,66 @@
+package engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.PackedMove;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    void mateInOne() {
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Search(game).search(SearchLimits.depth(3));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.bestChessMove());
+        assertEquals(Search.MATE - 1, result.score());
+        assertTrue(result.isMateScore());
+        assertEquals("a1a8", result.pvText());
+    }
+
+    @Test
+    @DisplayName("Finds Mate In Two")
+    void mateInTwo() {
+        // The rook alone can't mate, the king has to take away a7 first
+        ChessGame game = Fen.parse("k7/8/2K5/8/8/8/8/7R w - - 0 1");
+        SearchResult result = new Search(game).search(SearchLimits.depth(5));
+
+        assertEquals(Search.MATE - 3, result.score());
+        assertEquals(3, result.pv().length);
+    }
+
+    @Test
+    @DisplayName("Takes Hanging Queen")
+    void takesHangingQueen() {
+        ChessGame game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search(game).search(SearchLimits.depth(3));
+
+        assertEquals("d2d5", PackedMove.toLongAlgebraic(result.bestMove()));
+        assertTrue(result.score() > 300);
+    }
+
+    @Test
+    @DisplayName("Respects Node Limit")
+    void nodeLimit() {
+        ChessGame game = new ChessGame();
+        SearchResult result = new Search(game).search(SearchLimits.nodes(5000));
+
+        assertNotNull(result.bestChessMove());
+        assertTrue(result.nodes() < 5000 + 2048);
+        assertEquals(new ChessGame(), game);
+    }
+
+    @Test
+    @DisplayName("No Legal Moves")
+    void noLegalMoves() {
+        SearchResult result = new Search(Fen.parse("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1")).search(SearchLimits.depth(2));
+        assertNull(result.bestChessMove());
+        assertEquals(0, result.score());
+    }
+}
@@ -0,0 +1,72 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveList;
+import chess.PackedMove;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StaticExchangeTests {
+
+    @Test
+    @DisplayName("Undefended Piece")
+    void undefended() {
+        ChessGame game = Fen.parse("4k3/8/8/3n4/8/8/8/3RK3 w - - 0 1");
+        int capture = find(game, "d1d5");
+        assertTrue(StaticExchange.isAtLeast(game.getBoard(), capture, 320));
+        assertFalse(StaticExchange.isAtLeast(game.getBoard(), capture, 321));
+    }
+
+    @Test
+    @DisplayName("Queen Takes Defended Pawn")
+    void queenTakesDefendedPawn() {
+        ChessGame game = Fen.parse("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+        assertFalse(StaticExchange.isAtLeast(game.getBoard(), find(game, "d1d5"), 0));
+    }
+
+    @Test
+    @DisplayName("Pawn Takes Defended Knight")
+    void pawnTakesDefendedKnight() {
+        ChessGame game = Fen.parse("4k3/8/2p5/3n4/4P3/8/8/4K3 w - - 0 1");
+        int capture = find(game, "e4d5");
+        assertTrue(StaticExchange.isAtLeast(game.getBoard(), capture, 220));
+        assertFalse(StaticExchange.isAtLeast(game.getBoard(), capture, 221));
+    }
+
+    @Test
+    @DisplayName("Rooks Lined Up Behind Each Other")
+    void xRays() {
+        // Doubled white rooks against one black rook defender: Rxd5 Rxd5 Rxd5 wins the knight and a rook for a rook
+        ChessGame game = Fen.parse("3rk3/8/8/3n4/8/8/3R4/3RK3 w - - 0 1");
+        int capture = find(game, "d2d5");
+        assertTrue(StaticExchange.isAtLeast(game.getBoard(), capture, 320));
+        assertFalse(StaticExchange.isAtLeast(game.getBoard(), capture, 321));
+
+        // With a second black rook behind the first, white should stop after winning the knight for a rook
+        game = Fen.parse("3rk3/3r4/8/3n4/8/8/3R4/3RK3 w - - 0 1");
+        assertFalse(StaticExchange.isAtLeast(game.getBoard(), find(game, "d2d5"), 0));
+    }
+
+    @Test
+    @DisplayName("Quiescence Sees The Recapture")
+    void quiescenceSeesRecapture() {
+        // At depth 1 a plain search would grab the pawn and miss c6xd5
+        ChessGame game = Fen.parse("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+        SearchResult result = new Search(game).search(SearchLimits.depth(1));
+        assertNotEquals("d1d5", PackedMove.toLongAlgebraic(result.bestMove()));
+    }
+
+    private static int find(ChessGame game, String text) {
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+        for (int i=0; i<moves.size(); i++) {
+            if (PackedMove.toLongAlgebraic(moves.get(i)).equals(text)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException("Not a legal move: " + text);
+    }
+}
@@ -0,0 +1,89 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Fen;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeManagerTests {
+
+    @Test
+    @DisplayName("Clock Budgets")
+    void clockBudgets() {
+        // A minute to last the game: about 1/30th, with room to run over but never past half the clock
+        TimeManager suddenDeath = TimeManager.forClock(60_000, 0, 0, 0);
+        assertEquals(2000, suddenDeath.getOptimumMillis());
+        assertEquals(8000, suddenDeath.getMaximumMillis());
+
+        // Most of the increment can be spent every move
+        TimeManager increment = TimeManager.forClock(60_000, 2000, 0, 0);
+        assertEquals(3500, increment.getOptimumMillis());
+
+        // The last move before the time control may use most of what's left, but not all of it
+        TimeManager lastMove = TimeManager.forClock(10_000, 0, 1, 100);
+        assertTrue(lastMove.getMaximumMillis() <= 4950);
+        assertTrue(lastMove.getOptimumMillis() <= lastMove.getMaximumMillis());
+
+        TimeManager flagging = TimeManager.forClock(5, 0, 0, 50);
+        assertTrue(flagging.getOptimumMillis() >= 1);
+        assertTrue(flagging.getMaximumMillis() >= 1);
+    }
+
+    @Test
+    @DisplayName("Stable Best Move Stops Early")
+    void stability() {
+        TimeManager time = TimeManager.forClock(60_000, 0, 0, 0);
+        assertFalse(time.shouldStop(1500, 0, 0));
+        assertFalse(time.shouldStop(2500, 0, 0));
+        assertTrue(time.shouldStop(1500, 0, 4));
+        assertTrue(time.shouldStop(3000, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Node Budgets And Caps")
+    void nodeBudgets() {
+        TimeManager nodes = TimeManager.forNodeBudget(3_000_000, 0);
+        assertEquals(100_000, nodes.getOptimumNodes());
+        assertEquals(400_000, nodes.getMaximumNodes());
+        assertTrue(nodes.shouldStop(0, 100_000, 3));
+        assertFalse(nodes.shouldStop(0, 50_000, 0));
+
+        TimeManager capped = TimeManager.forClock(60_000, 0, 0, 0).withNodeCap(5000);
+        assertEquals(5000, capped.limits(0).maxNodes());
+        assertEquals(8000, capped.limits(0).maxTimeMillis());
+        assertEquals(50_000, nodes.withNodeCap(50_000).getOptimumNodes());
+    }
+
+    @Test
+    @DisplayName("Search Keeps To The Budget")
+    void searchKeepsToBudget() {
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        SearchResult result = new Search(game).search(TimeManager.forNodeBudget(3_000_000, 0).withNodeCap(20_000));
+        assertTrue(result.nodes() <= 20_000 + 1);
+        assertTrue(result.depth() > 0);
+    }
+
+    @Test
+    @DisplayName("Node Cap Is Exact")
+    void nodeCapIsExact() {
+        // A long move time has no optimum to stop at first, so only the cap ends the search
+        ChessGame game = Fen.parse(Fen.STARTING_POSITION);
+        for (long cap : new long[] {5_000, 20_000}) {
+            SearchResult result = new Search(game).search(TimeManager.forMoveTime(600_000).withNodeCap(cap));
+            assertEquals(cap, result.nodes());
+            assertTrue(result.depth() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Only Move Is Played At Once")
+    void onlyMove() {
+        // The king in check can only take the queen
+        ChessGame game = Fen.parse("k7/8/8/8/8/8/6q1/7K w - - 0 1");
+        SearchResult result = new Search(game).search(TimeManager.forClock(60_000, 0, 0, 0));
+        assertEquals(1, result.depth());
+        assertEquals("h1g2", result.pvText().substring(0, 4));
+    }
+}
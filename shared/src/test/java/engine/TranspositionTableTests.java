@@ -0,0 +1,80 @@
+package engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.PackedMove;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Store And Probe")
+    void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x123456789ABCDEFL;
+        int move = PackedMove.of(12, 28);
+        table.store(key, move, -250, 7, TranspositionTable.LOWER, 3);
+
+        long entry = table.probe(key);
+        assertEquals(move, TranspositionTable.move(entry));
+        assertEquals(-250, TranspositionTable.score(entry, 3));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+
+        // Same slot, different key
+        assertEquals(0, table.probe(key ^ (1L << 40)));
+    }
+
+    @Test
+    @DisplayName("Mate Scores Are Stored Relative To The Position")
+    void mateScores() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42L, PackedMove.NONE, Search.MATE - 7, 4, TranspositionTable.EXACT, 5);
+
+        // Mate in 2 plies from the stored position: 7 plies from a root 5 plies up, 4 from a root 2 plies up
+        assertEquals(Search.MATE - 7, TranspositionTable.score(table.probe(42L), 5));
+        assertEquals(Search.MATE - 4, TranspositionTable.score(table.probe(42L), 2));
+    }
+
+    @Test
+    @DisplayName("Deeper Entries Are Kept")
+    void deeperEntriesKept() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(42L, PackedMove.NONE, 10, 8, TranspositionTable.LOWER, 0);
+        table.store(42L, PackedMove.NONE, 20, 3, TranspositionTable.UPPER, 0);
+        assertEquals(8, TranspositionTable.depth(table.probe(42L)));
+
+        table.store(42L, PackedMove.NONE, 30, 3, TranspositionTable.EXACT, 0);
+        assertEquals(30, TranspositionTable.score(table.probe(42L), 0));
+    }
+
+    @Test
+    @DisplayName("Shared Table Speeds Up A Repeated Search")
+    void sharedTable() {
+        ChessGame game = Fen.parse("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        TranspositionTable table = new TranspositionTable(8);
+
+        SearchResult first = new Search(game, table).search(SearchLimits.depth(4));
+        SearchResult second = new Search(game, table).search(SearchLimits.depth(4));
+        assertEquals(first.score(), second.score());
+        assertTrue(second.nodes() < first.nodes());
+        assertTrue(table.hashfull() > 0);
+    }
+
+    @Test
+    @DisplayName("Size Limits")
+    void sizeLimits() {
+        // The largest table is too big to allocate here, but its entry array length must still fit in an int
+        assertEquals(1 << 16, TranspositionTable.slotCount(1));
+        assertEquals(1 << 29, TranspositionTable.slotCount(TranspositionTable.MAX_SIZE_MB));
+        assertTrue(TranspositionTable.slotCount(TranspositionTable.MAX_SIZE_MB) * 2 > 0);
+        assertEquals(1 << 28, TranspositionTable.slotCount(TranspositionTable.MAX_SIZE_MB - 1));
+
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(TranspositionTable.MAX_SIZE_MB + 1));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(16384));
+    }
+}
@@ -0,0 +1,116 @@
+package engine;
+
+import org.junit.jupiter.api.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UciTests {
+
+    // Runs a script of commands to the end, letting the last search finish, and returns the responses
+    private static List<String> run(String... commands) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        new Uci(new BufferedReader(new StringReader(String.join("\n", commands))), out).run();
+        return bytes.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    @DisplayName("Handshake")
+    void handshake() throws IOException {
+        List<String> lines = run("uci", "isready");
+
+        assertEquals("id name " + Uci.NAME, lines.get(0));
+        assertTrue(lines.contains("option name Hash type spin default 16 min 1 max " + Uci.MAX_HASH_MB));
+        assertTrue(lines.contains("option name Threads type spin default 1 min 1 max " + Uci.MAX_THREADS));
+        assertEquals(List.of("uciok", "readyok"), lines.subList(lines.size() - 2, lines.size()));
+    }
+
+    @Test
+    @DisplayName("Searches After Moves")
+    void searchesAfterMoves() throws IOException {
+        List<String> lines = run("position startpos moves e2e4 e7e5 g1f3", "go depth 3");
+
+        // Black's pieces are all on the 5th, 7th and 8th ranks, and the last info line reports the deepest iteration
+        String bestMove = lines.get(lines.size() - 1);
+        assertTrue(bestMove.matches("bestmove [a-h][578][a-h][1-8]"), bestMove);
+        assertTrue(lines.get(lines.size() - 2).startsWith("info depth 3 score cp "));
+    }
+
+    @Test
+    @DisplayName("Reports Mate In Moves")
+    void reportsMate() throws IOException {
+        List<String> lines = run("setoption name Threads value 2", "setoption name Hash value 4",
+            "position fen k7/8/2K5/8/8/8/8/7R w - - 0 1", "go nodes 1000000");
+
+        assertTrue(lines.get(lines.size() - 2).contains(" score mate 2 "), lines.get(lines.size() - 2));
+        assertTrue(lines.get(lines.size() - 1).startsWith("bestmove "));
+    }
+
+    @Test
+    @DisplayName("Stop Ends An Infinite Search")
+    void stopEndsInfiniteSearch() throws IOException {
+        List<String> lines = run("position startpos", "go infinite", "isready", "stop", "quit");
+
+        assertTrue(lines.contains("readyok"));
+        assertTrue(lines.get(lines.size() - 1).startsWith("bestmove "));
+    }
+
+    @Test
+    @DisplayName("Infinite Search Waits For Stop")
+    void infiniteWaitsForStop() throws IOException {
+        // The mate is found at once, but the best move must wait for stop, after the isready reply
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        Uci uci = new Uci(new BufferedReader(new StringReader("")), out);
+        uci.handle("position fen k7/8/2K5/8/8/8/8/7R w - - 0 1");
+        uci.handle("go infinite");
+        while (!bytes.toString(StandardCharsets.UTF_8).contains("score mate 2")) {
+            Thread.onSpinWait();
+        }
+        uci.handle("isready");
+        uci.handle("stop");
+
+        List<String> lines = bytes.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals("readyok", lines.get(lines.size() - 2));
+        assertTrue(lines.get(lines.size() - 1).startsWith("bestmove "));
+    }
+
+    @Test
+    @DisplayName("Go Without A Limit Still Moves")
+    void goWithoutLimit() {
+        // An increment alone isn't a clock, so the default move time applies rather than waiting for stop
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        Uci uci = new Uci(new BufferedReader(new StringReader("")), out);
+        uci.handle("position startpos");
+        uci.handle("go winc 100");
+
+        assertTimeoutPreemptively(Duration.ofMillis(Uci.DEFAULT_MOVE_TIME_MILLIS * 10), () -> {
+            while (!bytes.toString(StandardCharsets.UTF_8).contains("bestmove ")) {
+                Thread.sleep(10);
+            }
+        });
+        uci.handle("quit");
+    }
+
+    @Test
+    @DisplayName("Rejects Bad Commands Without Quitting")
+    void rejectsBadCommands() throws IOException {
+        List<String> lines = run("position startpos moves e2e5", "setoption name Hash value 0",
+            "setoption name Contempt value 10", "go movetime 50");
+
+        assertEquals("info string Illegal move: e2e5", lines.get(0));
+        assertTrue(lines.get(1).startsWith("info string Hash must be"));
+        assertEquals("info string Unknown option: contempt", lines.get(2));
+        assertTrue(lines.get(lines.size() - 1).startsWith("bestmove "));
+    }
+}